@@ -0,0 +1,45 @@
+package com.vedvix.notification.config;
+
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "notification.adaptive-concurrency")
+@Data
+public class AdaptiveConcurrencyConfig {
+
+    private boolean enabled;
+    private Duration interval = Duration.ofSeconds(5);
+    private Bounds defaults = new Bounds();
+    // Per-channel consumer bounds; channels left out use the defaults
+    private Map<ChannelType, Bounds> channels = new EnumMap<>(ChannelType.class);
+    // Per-lane consumer bounds, taking precedence over the channel's; lanes left out use the channel's
+    private Map<NotificationPriority, Bounds> lanes = new EnumMap<>(NotificationPriority.class);
+    // Scale up while more than this many messages wait per consumer
+    private int backlogPerConsumer = 100;
+    // Back off while the provider fails more often than this, or answers slower than this
+    private double maxErrorRate = 0.2;
+    private Duration maxLatency = Duration.ofSeconds(2);
+
+    public Bounds bounds(ChannelType channel) {
+        return channels.getOrDefault(channel, defaults);
+    }
+
+    public Bounds bounds(ChannelType channel, NotificationPriority lane) {
+        Bounds bounds = lanes.get(lane);
+        return bounds != null ? bounds : bounds(channel);
+    }
+
+    @Data
+    public static class Bounds {
+        private int min = 1;
+        private int max = 16;
+    }
+}
@@ -1,84 +1,185 @@
 package com.vedvix.notification.config;
 
+import com.vedvix.notification.infrastructure.Lz4CompressingPostProcessor;
+import com.vedvix.notification.infrastructure.Lz4DecompressingPostProcessor;
+import com.vedvix.notification.infrastructure.NotificationBatchingStrategy;
+import com.vedvix.notification.infrastructure.QueueWaitRecorder;
+import com.vedvix.notification.infrastructure.SmileMessageConverter;
+import com.vedvix.notification.routing.Route;
+import com.vedvix.notification.routing.RoutingTable;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.DirectRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Configuration
 public class RabbitConfig {
-/*
-
-    @Value("${notification.queues.email}")
-    private String emailQueue;
-*/
-    @Value("${notification.queues.sms}")
-    private String smsQueue;
-/*
-    @Value("${notification.queues.push}")
-    private String pushQueue;
-
 
-*/
-    @Value("${notification.exchange}")
-    private String exchangeName;
-
-    @Bean
-    public DirectExchange notificationExchange() {
-        return new DirectExchange(exchangeName);
-    }
+    // Listener containers stay stopped when another transport carries the messages
+    @Value("#{'${notification.transport:amqp}' == 'amqp'}")
+    private boolean amqpTransport;
+
+    /**
+     * Declares the exchange plus one queue and binding for every queue in the routing table.
+     * Queues that receive prioritised routes get {@code x-max-priority}; RabbitMQ refuses to
+     * change that argument on an existing queue, so raising a queue's priority needs a new queue name.
+     * Partitioned routes declare one queue per partition with single active consumer, so however
+     * many instances subscribe, only one consumes a partition at a time.
+     */
     @Bean
-    public Queue smsNotificationQueue() {
-        return new Queue(smsQueue);
+    public Declarables notificationTopology(RoutingTable routingTable) {
+        List<Declarable> declarables = new ArrayList<>();
+        Map<String, Integer> maxPriorities = routingTable.maxPriorityByQueue();
+        Set<String> bound = new HashSet<>();
+        for (Route route : routingTable.routes()) {
+            if (bound.isEmpty()) {
+                declarables.add(new DirectExchange(route.exchange()));
+            }
+            if (!bound.add(route.queue())) {
+                continue;
+            }
+            int maxPriority = maxPriorities.get(route.queue());
+            for (int partition = 0; partition < Math.max(1, route.partitions()); partition++) {
+                QueueBuilder queue = QueueBuilder.durable(route.partitionQueue(partition));
+                if (maxPriority > 0) {
+                    queue.maxPriority(maxPriority);
+                }
+                if (route.partitioned()) {
+                    queue.singleActiveConsumer();
+                }
+                Queue declared = queue.build();
+                declarables.add(declared);
+                declarables.add(new Binding(declared.getName(), Binding.DestinationType.QUEUE,
+                        route.exchange(), declared.getName(), null));
+            }
+        }
+        return new Declarables(declarables);
     }
-/*
+
+    /**
+     * The delay ladder for scheduled sends: one queue per tier with a queue TTL of the tier's
+     * length, all dead-lettering into the due queue that {@code DelayLadder} consumes. Queue-level
+     * TTL keeps every tier FIFO, so expiry is never blocked behind a longer-lived message.
+     */
     @Bean
-    public Queue emailNotificationQueue() {
-        return new Queue(emailQueue);
+    public Declarables delayLadderTopology(ScheduleConfig scheduleConfig) {
+        List<Declarable> declarables = new ArrayList<>();
+        DirectExchange exchange = new DirectExchange(scheduleConfig.getExchange());
+        declarables.add(exchange);
+        Queue due = QueueBuilder.durable(scheduleConfig.getDueQueue()).build();
+        declarables.add(due);
+        declarables.add(BindingBuilder.bind(due).to(exchange).with(due.getName()));
+        for (Duration tier : scheduleConfig.getTiers()) {
+            Queue queue = QueueBuilder.durable(scheduleConfig.tierQueue(tier))
+                    .ttl((int) tier.toMillis())
+                    .deadLetterExchange(exchange.getName())
+                    .deadLetterRoutingKey(due.getName())
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(queue.getName()));
+        }
+        return new Declarables(declarables);
     }
 
-
-
+    /**
+     * Picks the decoder from the message content type, so listeners accept JSON and Smile bodies
+     * while producers are switched between {@code notification.wire.format} values.
+     */
     @Bean
-    public Queue pushNotificationQueue() {
-        return new Queue(pushQueue);
+    public MessageConverter messageConverter() {
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(new Jackson2JsonMessageConverter());
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, new SmileMessageConverter());
+        return converter;
     }
 
     @Bean
-    public Binding bindEmailQueue() {
-        return BindingBuilder.bind(emailNotificationQueue())
-                .to(notificationExchange())
-                .with("notify.email");
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(messageConverter());
+        rabbitTemplate.setMandatory(true);
+        return rabbitTemplate;
     }
 
-
-
+    /**
+     * Boot's listener container factory plus transparent decompression of LZ4 (and gzip/deflate)
+     * bodies, keyed on the content encoding, before conversion and de-batching, and queue wait
+     * time recording. Every factory de-batches with {@link NotificationBatchingStrategy}, so
+     * batched messages keep their own publish time.
+     */
     @Bean
-    public Binding bindPushQueue() {
-        return BindingBuilder.bind(pushNotificationQueue())
-                .to(notificationExchange())
-                .with("notify.push");
-    }*/
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            QueueWaitRecorder queueWaitRecorder) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAutoStartup(amqpTransport);
+        factory.setAfterReceivePostProcessors(receivePostProcessors(queueWaitRecorder));
+        factory.setBatchingStrategy(new NotificationBatchingStrategy());
+        return factory;
+    }
 
+    /**
+     * Consumer-side batching for batch listeners: each consumer collects up to {@code batchSize}
+     * messages, or whatever arrived within {@code receiveTimeout}, and acks them together.
+     */
     @Bean
-    public Binding bindSmsQueue() {
-        return BindingBuilder.bind(smsNotificationQueue())
-                .to(notificationExchange())
-                .with("notify.sms");
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            QueueWaitRecorder queueWaitRecorder,
+            @Value("${notification.sms.batch.batch-size:100}") int batchSize,
+            @Value("${notification.sms.batch.receive-timeout:200ms}") Duration receiveTimeout,
+            @Value("${notification.sms.batch.prefetch:250}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAutoStartup(amqpTransport);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setAfterReceivePostProcessors(receivePostProcessors(queueWaitRecorder));
+        factory.setBatchingStrategy(new NotificationBatchingStrategy());
+        return factory;
     }
 
-    @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    /**
+     * Direct containers with exactly one consumer per partition queue, so each partition is
+     * processed strictly in order while partitions run in parallel.
+     */
+    @Bean(RoutingTable.PARTITIONED_CONTAINER_FACTORY)
+    public DirectRabbitListenerContainerFactory partitionedListenerContainerFactory(
+            DirectRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            QueueWaitRecorder queueWaitRecorder) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAutoStartup(amqpTransport);
+        factory.setConsumersPerQueue(1);
+        factory.setAfterReceivePostProcessors(receivePostProcessors(queueWaitRecorder));
+        factory.setBatchingStrategy(new NotificationBatchingStrategy());
+        return factory;
     }
 
-    @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
-        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(messageConverter());
-        return rabbitTemplate;
+    public static MessagePostProcessor[] receivePostProcessors(QueueWaitRecorder queueWaitRecorder) {
+        DelegatingDecompressingPostProcessor decompressor = new DelegatingDecompressingPostProcessor();
+        decompressor.addDecompressor(Lz4CompressingPostProcessor.ENCODING, new Lz4DecompressingPostProcessor());
+        return new MessagePostProcessor[]{decompressor, queueWaitRecorder};
     }
 }
@@ -0,0 +1,40 @@
+package com.vedvix.notification.config;
+
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.ChannelPool;
+import reactor.rabbitmq.ChannelPoolFactory;
+import reactor.rabbitmq.ChannelPoolOptions;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.SenderOptions;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRabbitConfig {
+
+    @Value("${notification.reactive.channel-pool-size:16}")
+    private int channelPoolSize;
+
+    @Bean
+    public Mono<com.rabbitmq.client.Connection> reactiveRabbitConnection(CachingConnectionFactory connectionFactory) {
+        // Reuses the host and credentials Boot configured for the blocking stack
+        return Mono.fromCallable(() -> connectionFactory.getRabbitConnectionFactory().newConnection("notification-reactive"))
+                .cache();
+    }
+
+    @Bean(destroyMethod = "close")
+    public Sender reactiveSender(Mono<com.rabbitmq.client.Connection> reactiveRabbitConnection) {
+        return RabbitFlux.createSender(new SenderOptions().connectionMono(reactiveRabbitConnection));
+    }
+
+    @Bean(destroyMethod = "close")
+    public ChannelPool reactiveChannelPool(Mono<com.rabbitmq.client.Connection> reactiveRabbitConnection) {
+        return ChannelPoolFactory.createChannelPool(reactiveRabbitConnection,
+                new ChannelPoolOptions().maxCacheSize(channelPoolSize));
+    }
+}
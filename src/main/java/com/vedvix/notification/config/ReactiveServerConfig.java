@@ -0,0 +1,21 @@
+package com.vedvix.notification.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tomcat stays on the classpath for the servlet stack, and Boot prefers it over Reactor Netty
+ * when both are present, which would serve WebFlux through the servlet adapter. Declaring the
+ * factory pins the reactive mode to Netty event loops.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
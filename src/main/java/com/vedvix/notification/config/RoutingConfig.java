@@ -0,0 +1,32 @@
+package com.vedvix.notification.config;
+
+import com.vedvix.notification.dto.ChannelType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "notification.routing")
+@Data
+public class RoutingConfig {
+
+    private String exchange;
+    // High priority lane of a route uses the route's queue name plus this suffix
+    private String highPriorityQueueSuffix = "_high";
+    private Map<ChannelType, RouteRule> defaults = new EnumMap<>(ChannelType.class);
+    // projectId -> channel rules; channels a project leaves out fall back to the defaults
+    private Map<String, Map<ChannelType, RouteRule>> projects = new HashMap<>();
+    // Channels whose queues are split into this many partitions by user id
+    private Map<ChannelType, Integer> partitions = new EnumMap<>(ChannelType.class);
+
+    @Data
+    public static class RouteRule {
+        private String queue;
+        private int priority;
+        private String provider;
+    }
+}
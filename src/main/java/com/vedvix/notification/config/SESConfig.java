@@ -4,33 +4,42 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.sesv2.SesV2AsyncClient;
+
+import java.time.Duration;
 
 @Configuration
 public class SESConfig {
-/*
-    @Value("${aws.access-key}")
+
+    @Value("${aws.access-key:}")
     private String accessKey;
 
-    @Value("${aws.secret-key}")
+    @Value("${aws.secret-key:}")
     private String secretKey;
 
-    @Value("${aws.region}")
+    @Value("${aws.region:us-east-1}")
     private String region;
 
-    @Bean
-    public SesClient sesClient() {
-        return SesClient.builder()
+    /**
+     * Async SES v2 client on a pooled Netty connection pool sized to the email in-flight window.
+     * Falls back to the default credentials chain when no static keys are configured.
+     */
+    @Bean(destroyMethod = "close")
+    public SesV2AsyncClient sesV2AsyncClient(@Value("${notification.email.max-in-flight:16}") int maxInFlight) {
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        return SesV2AsyncClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(
-                        StaticCredentialsProvider.create(
-                                AwsBasicCredentials.create(accessKey, secretKey)
-                        )
-                )
+                .credentialsProvider(credentials)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxInFlight)
+                        .connectionMaxIdleTime(Duration.ofSeconds(60)))
                 .build();
     }
-
- */
-}
\ No newline at end of file
+}
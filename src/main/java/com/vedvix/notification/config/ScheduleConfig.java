@@ -0,0 +1,26 @@
+package com.vedvix.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "notification.schedule")
+@Data
+public class ScheduleConfig {
+
+    private String exchange = "notification_delay";
+    // Expired tier messages are dead-lettered here and re-parked or delivered
+    private String dueQueue = "notification_delay_due";
+    private List<Duration> tiers = new ArrayList<>(List.of(
+            Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofMinutes(1),
+            Duration.ofMinutes(10), Duration.ofHours(1), Duration.ofHours(6), Duration.ofDays(1)));
+
+    public String tierQueue(Duration tier) {
+        return "notification_delay_" + tier.toMillis() + "ms";
+    }
+}
@@ -1,10 +1,20 @@
 package com.vedvix.notification.config;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.twilio.Twilio;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Data;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @ConfigurationProperties(prefix = "twilio")
@@ -15,11 +25,30 @@ public class TwilioConfig {
     private String accountSid;
     private String authToken;
     private String fromNumber;
+    // Concurrent sends allowed per account; sizes the HTTP connection pool and the async executor
+    private int maxInFlight = 256;
+
+    private ExecutorService executor;
 
+    /**
+     * The SDK's default client keeps only a handful of pooled connections and its async calls run
+     * on a small shared executor, so both are sized to the in-flight limit here.
+     */
     @PostConstruct
     public void init() {
         Twilio.init(accountSid, authToken);
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(maxInFlight);
+        connections.setDefaultMaxPerRoute(maxInFlight);
+        Twilio.setRestClient(new TwilioRestClient.Builder(accountSid, authToken)
+                .httpClient(new NetworkHttpClient(HttpClientBuilder.create().setConnectionManager(connections)))
+                .build());
+        executor = Executors.newFixedThreadPool(maxInFlight, new CustomizableThreadFactory("twilio-"));
+        Twilio.setExecutorService(MoreExecutors.listeningDecorator(executor));
     }
 
-
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
 }
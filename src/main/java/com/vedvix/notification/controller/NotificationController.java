@@ -1,21 +1,88 @@
 package com.vedvix.notification.controller;
 
+import com.vedvix.notification.dto.BatchNotificationResponse;
+import com.vedvix.notification.dto.NotificationReceipt;
 import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationStatus;
+import com.vedvix.notification.dto.ScheduleNotificationRequest;
+import com.vedvix.notification.dto.StreamIngestResponse;
+import com.vedvix.notification.service.NotificationSchedulerService;
 import com.vedvix.notification.service.NotificationService;
+import com.vedvix.notification.service.NotificationStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class NotificationController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
+    private final ObjectProvider<NotificationSchedulerService> notificationSchedulerService;
+
+    @Value("${notification.ingest.batch.max-size:500}")
+    private int maxBatchSize;
 
     @PostMapping("/send")
-    public ResponseEntity<String> send(@RequestBody NotificationRequest request) {
-        notificationService.sendNotification(request);
-        return ResponseEntity.ok("Notification accepted for processing");
+    public CompletableFuture<ResponseEntity<NotificationReceipt>> send(@Valid @RequestBody NotificationRequest request,
+                                                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return notificationService.sendNotification(request, idempotencyKey).thenApply(receipt -> ResponseEntity.accepted()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(receipt.getStatus() == NotificationStatus.DUPLICATE))
+                .body(receipt));
+    }
+
+    @PostMapping("/send/batch")
+    public CompletableFuture<ResponseEntity<BatchNotificationResponse>> sendBatch(@RequestBody List<NotificationRequest> requests,
+                                                                                  @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (requests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch size " + requests.size() + " exceeds limit of " + maxBatchSize);
+        }
+        return notificationService.sendNotifications(requests, idempotencyKey, Duration.ZERO)
+                .thenApply(results -> ResponseEntity.accepted().body(BatchNotificationResponse.of(results)));
+    }
+
+    // 503 with the partial tally when the pipeline stayed full; the client resends from lastLine + 1
+    @PostMapping(value = "/send/stream", consumes = "application/x-ndjson")
+    public ResponseEntity<StreamIngestResponse> sendStream(HttpServletRequest request) throws IOException {
+        StreamIngestResponse response = notificationStreamService.ingest(request.getInputStream());
+        return ResponseEntity.status(response.isComplete() ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    @PostMapping("/schedule")
+    public CompletableFuture<ResponseEntity<NotificationReceipt>> schedule(@Valid @RequestBody ScheduleNotificationRequest request) {
+        return scheduler().schedule(request.getNotification(), request.getDeliverAt())
+                .thenApply(receipt -> ResponseEntity.accepted().body(receipt));
+    }
+
+    @DeleteMapping("/schedule/{notificationId}")
+    public ResponseEntity<Void> cancelScheduled(@PathVariable String notificationId) {
+        return scheduler().cancel(notificationId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private NotificationSchedulerService scheduler() {
+        NotificationSchedulerService scheduler = notificationSchedulerService.getIfAvailable();
+        if (scheduler == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Scheduling is not available with the configured transport and schedule mode");
+        }
+        return scheduler;
     }
-}
\ No newline at end of file
+}
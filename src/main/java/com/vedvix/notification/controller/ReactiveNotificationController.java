@@ -0,0 +1,90 @@
+package com.vedvix.notification.controller;
+
+import com.vedvix.notification.dto.NotificationReceipt;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationStatus;
+import com.vedvix.notification.idempotency.IdempotencyKeyResolver;
+import com.vedvix.notification.idempotency.IdempotencyStore;
+import com.vedvix.notification.infrastructure.NotificationIdGenerator;
+import com.vedvix.notification.infrastructure.ReactiveMessagingProducer;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/api/v1/notifications")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveNotificationController {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private final ReactiveMessagingProducer producer;
+    private final NotificationIdGenerator idGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyKeyResolver idempotencyKeyResolver;
+    private final boolean blockingIdempotencyStore;
+
+    public ReactiveNotificationController(ReactiveMessagingProducer producer,
+                                          NotificationIdGenerator idGenerator,
+                                          IdempotencyStore idempotencyStore,
+                                          IdempotencyKeyResolver idempotencyKeyResolver,
+                                          @Value("${notification.idempotency.jdbc.enabled:false}") boolean blockingIdempotencyStore) {
+        this.producer = producer;
+        this.idGenerator = idGenerator;
+        this.idempotencyStore = idempotencyStore;
+        this.idempotencyKeyResolver = idempotencyKeyResolver;
+        this.blockingIdempotencyStore = blockingIdempotencyStore;
+    }
+
+    @PostMapping("/send")
+    public Mono<ResponseEntity<NotificationReceipt>> send(@Valid @RequestBody NotificationRequest request,
+                                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        String notificationId = idGenerator.nextId();
+        String key = idempotencyKeyResolver.resolve(request, idempotencyKey);
+        Mono<String> claim = Mono.fromCallable(() -> key == null ? "" : nullToEmpty(idempotencyStore.putIfAbsent(key, notificationId)));
+        if (blockingIdempotencyStore) {
+            // The JDBC backing store blocks, keep it off the event loop
+            claim = claim.subscribeOn(Schedulers.boundedElastic());
+        }
+        return claim.flatMap(original -> {
+            if (!original.isEmpty()) {
+                return Mono.just(receipt(new NotificationReceipt(original, NotificationStatus.DUPLICATE)));
+            }
+            request.setNotificationId(notificationId);
+            return producer.publish(request)
+                    .onErrorResume(e -> {
+                        log.error("Failed to publish notification {}", notificationId, e);
+                        return release(key, notificationId).then(Mono.error(e));
+                    })
+                    .onErrorMap(e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Broker unavailable, retry later", e))
+                    .thenReturn(receipt(new NotificationReceipt(notificationId, NotificationStatus.ACCEPTED)));
+        });
+    }
+
+    private Mono<Void> release(String key, String notificationId) {
+        if (key == null) {
+            return Mono.empty();
+        }
+        Mono<Void> release = Mono.fromRunnable(() -> idempotencyStore.remove(key, notificationId));
+        return blockingIdempotencyStore ? release.subscribeOn(Schedulers.boundedElastic()) : release;
+    }
+
+    private static ResponseEntity<NotificationReceipt> receipt(NotificationReceipt receipt) {
+        return ResponseEntity.accepted()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(receipt.getStatus() == NotificationStatus.DUPLICATE))
+                .body(receipt);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
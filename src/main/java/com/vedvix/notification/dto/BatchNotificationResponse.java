@@ -0,0 +1,30 @@
+package com.vedvix.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNotificationResponse {
+    private int accepted;
+    private int duplicates;
+    private int rejected;
+    private List<NotificationResult> results;
+
+    public static BatchNotificationResponse of(List<NotificationResult> results) {
+        int accepted = 0;
+        int duplicates = 0;
+        for (NotificationResult result : results) {
+            if (result.getStatus() == NotificationStatus.ACCEPTED) {
+                accepted++;
+            } else if (result.getStatus() == NotificationStatus.DUPLICATE) {
+                duplicates++;
+            }
+        }
+        return new BatchNotificationResponse(accepted, duplicates, results.size() - accepted - duplicates, results);
+    }
+}
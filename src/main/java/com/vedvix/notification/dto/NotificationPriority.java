@@ -0,0 +1,5 @@
+package com.vedvix.notification.dto;
+
+public enum NotificationPriority {
+    HIGH, LOW
+}
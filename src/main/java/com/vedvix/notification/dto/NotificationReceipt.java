@@ -0,0 +1,13 @@
+package com.vedvix.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReceipt {
+    private String notificationId;
+    private NotificationStatus status;
+}
@@ -1,16 +1,24 @@
 package com.vedvix.notification.dto;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
-import java.io.Serializable;
 import java.util.Map;
 import java.util.List;
 
 @Data
-public class NotificationRequest implements Serializable {
+public class NotificationRequest {
+    private String notificationId;
+    @NotBlank
     private String projectId;
+    @NotBlank
     private String userId;
+    @NotEmpty
     private List<ChannelType> channels; // PUSH, EMAIL, SMS
+    @NotBlank
     private String templateCode;
     private Map<String, String> placeholders;
+    // HIGH for transactional traffic such as OTPs; anything else shares the bulk lane
+    private NotificationPriority priority = NotificationPriority.LOW;
 }
@@ -0,0 +1,29 @@
+package com.vedvix.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResult {
+    private int index;
+    private String notificationId;
+    private NotificationStatus status;
+    private List<String> errors;
+
+    public static NotificationResult accepted(int index, String notificationId) {
+        return new NotificationResult(index, notificationId, NotificationStatus.ACCEPTED, List.of());
+    }
+
+    public static NotificationResult duplicate(int index, String notificationId) {
+        return new NotificationResult(index, notificationId, NotificationStatus.DUPLICATE, List.of());
+    }
+
+    public static NotificationResult rejected(int index, List<String> errors) {
+        return new NotificationResult(index, null, NotificationStatus.REJECTED, errors);
+    }
+}
@@ -0,0 +1,7 @@
+package com.vedvix.notification.dto;
+
+public enum NotificationStatus {
+    ACCEPTED,
+    DUPLICATE,
+    REJECTED
+}
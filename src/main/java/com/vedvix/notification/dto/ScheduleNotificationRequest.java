@@ -0,0 +1,16 @@
+package com.vedvix.notification.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class ScheduleNotificationRequest {
+    @Valid
+    @NotNull
+    private NotificationRequest notification;
+    @NotNull
+    private Instant deliverAt;
+}
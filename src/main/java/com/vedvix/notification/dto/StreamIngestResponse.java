@@ -0,0 +1,23 @@
+package com.vedvix.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamIngestResponse {
+    private long received;
+    private long accepted;
+    private long duplicates;
+    private long rejected;
+    // Only the first rejections are reported, indexed by line number, so the response stays bounded
+    private List<NotificationResult> rejections;
+    // False when ingest stopped early because the publish pipeline stayed full
+    private boolean complete;
+    // Every line up to this one was handed off or rejected; resend from the next line when incomplete
+    private long lastLine;
+}
@@ -0,0 +1,11 @@
+package com.vedvix.notification.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestCapacityExceededException extends RuntimeException {
+    public IngestCapacityExceededException(String message) {
+        super(message);
+    }
+}
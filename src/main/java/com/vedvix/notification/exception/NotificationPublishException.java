@@ -0,0 +1,11 @@
+package com.vedvix.notification.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class NotificationPublishException extends RuntimeException {
+    public NotificationPublishException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.vedvix.notification.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class ScheduleCancellationUnsupportedException extends RuntimeException {
+    public ScheduleCancellationUnsupportedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.vedvix.notification.idempotency;
+
+import com.vedvix.notification.dto.NotificationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+public class IdempotencyKeyResolver {
+
+    private final boolean deriveKeys;
+
+    public IdempotencyKeyResolver(@Value("${notification.idempotency.derive-keys:true}") boolean deriveKeys) {
+        this.deriveKeys = deriveKeys;
+    }
+
+    /**
+     * Client keys are scoped to the project so two tenants cannot collide. Without a client key the
+     * request content is hashed instead, which catches blind retries of the same payload.
+     *
+     * @return the key, or {@code null} when deduplication does not apply to this request
+     */
+    public String resolve(NotificationRequest request, String clientKey) {
+        if (clientKey != null && !clientKey.isBlank()) {
+            return "key:" + request.getProjectId() + ":" + clientKey;
+        }
+        return deriveKeys ? "hash:" + contentHash(request) : null;
+    }
+
+    private static String contentHash(NotificationRequest request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getProjectId()).append('\n')
+                .append(request.getUserId()).append('\n')
+                .append(request.getTemplateCode()).append('\n')
+                .append(request.getChannels()).append('\n');
+        if (request.getPlaceholders() != null) {
+            for (Map.Entry<String, String> placeholder : new TreeMap<>(request.getPlaceholders()).entrySet()) {
+                canonical.append(placeholder.getKey()).append('=').append(placeholder.getValue()).append('\n');
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.vedvix.notification.idempotency;
+
+public interface IdempotencyStore {
+
+    /**
+     * Records {@code notificationId} under {@code key} unless a live entry already exists.
+     *
+     * @return the notification id previously stored under the key, or {@code null} if this call claimed it
+     */
+    String putIfAbsent(String key, String notificationId);
+
+    void remove(String key, String notificationId);
+}
@@ -0,0 +1,105 @@
+package com.vedvix.notification.idempotency;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, time-expiring key index. Every entry has the same TTL, so insertion order is also
+ * expiry order and eviction only ever has to look at the head of the queue. Each queue slot
+ * remembers the entry it was added for, so a slot left behind by a re-claimed key is dropped
+ * instead of holding up eviction. When a
+ * {@link JdbcIdempotencyStore} is enabled, misses fall through to it so keys survive restarts
+ * and are shared between instances.
+ */
+@Component
+@Primary
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Slot> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final IdempotencyStore backing;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryIdempotencyStore(@Value("${notification.idempotency.ttl:10m}") Duration ttl,
+                                    @Value("${notification.idempotency.max-entries:100000}") int maxEntries,
+                                    ObjectProvider<JdbcIdempotencyStore> backing) {
+        this(ttl, maxEntries, backing.getIfAvailable(), System::currentTimeMillis);
+    }
+
+    InMemoryIdempotencyStore(Duration ttl, int maxEntries, IdempotencyStore backing, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.backing = backing;
+        this.clock = clock;
+    }
+
+    @Override
+    public String putIfAbsent(String key, String notificationId) {
+        long now = clock.getAsLong();
+        Entry claimed = new Entry(notificationId, now + ttlMillis);
+        Entry existing = entries.putIfAbsent(key, claimed);
+        if (existing != null && existing.expiresAt() > now) {
+            return existing.notificationId();
+        }
+        if (existing != null && !entries.replace(key, existing, claimed)) {
+            return putIfAbsent(key, notificationId);
+        }
+        Entry current = claimed;
+        String persisted = backing == null ? null : backing.putIfAbsent(key, notificationId);
+        if (persisted != null) {
+            current = new Entry(persisted, claimed.expiresAt());
+            entries.replace(key, claimed, current);
+        }
+        insertionOrder.add(new Slot(key, current));
+        // After the insert, so the store never holds more than maxEntries keys
+        evict(now);
+        return persisted;
+    }
+
+    @Override
+    public void remove(String key, String notificationId) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.notificationId().equals(notificationId)) {
+            entries.remove(key, entry);
+        }
+        if (backing != null) {
+            backing.remove(key, notificationId);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Slot head;
+        while ((head = insertionOrder.peek()) != null) {
+            if (head.entry().expiresAt() > now && entries.size() <= maxEntries) {
+                return;
+            }
+            // Only removes the entry this slot was added for, never a later claim of the same key
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key(), head.entry());
+            }
+        }
+    }
+
+    private record Entry(String notificationId, long expiresAt) {
+    }
+
+    private record Slot(String key, Entry entry) {
+    }
+}
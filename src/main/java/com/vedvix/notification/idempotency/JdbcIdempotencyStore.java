@@ -0,0 +1,70 @@
+package com.vedvix.notification.idempotency;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "notification.idempotency.jdbc.enabled", havingValue = "true")
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${notification.idempotency.ttl:10m}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+    }
+
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS notification_idempotency (
+                    idempotency_key VARCHAR(255) PRIMARY KEY,
+                    notification_id VARCHAR(32) NOT NULL,
+                    expires_at TIMESTAMPTZ NOT NULL
+                )""");
+    }
+
+    @Override
+    public String putIfAbsent(String key, String notificationId) {
+        // Claims the key when it is new or its previous entry has expired; a live entry is left untouched
+        List<String> claimed = jdbcTemplate.queryForList("""
+                INSERT INTO notification_idempotency (idempotency_key, notification_id, expires_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT (idempotency_key) DO UPDATE
+                    SET notification_id = EXCLUDED.notification_id, expires_at = EXCLUDED.expires_at
+                    WHERE notification_idempotency.expires_at < now()
+                RETURNING notification_id""",
+                String.class, key, notificationId, Timestamp.from(Instant.now().plus(ttl)));
+        if (!claimed.isEmpty()) {
+            return null;
+        }
+        List<String> existing = jdbcTemplate.queryForList(
+                "SELECT notification_id FROM notification_idempotency WHERE idempotency_key = ?", String.class, key);
+        return existing.isEmpty() ? null : existing.get(0);
+    }
+
+    @Override
+    public void remove(String key, String notificationId) {
+        jdbcTemplate.update("DELETE FROM notification_idempotency WHERE idempotency_key = ? AND notification_id = ?",
+                key, notificationId);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.idempotency.jdbc.purge-interval:PT5M}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM notification_idempotency WHERE expires_at < now()");
+        log.debug("Purged {} expired idempotency keys", purged);
+    }
+}
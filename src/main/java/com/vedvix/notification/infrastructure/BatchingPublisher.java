@@ -0,0 +1,137 @@
+package com.vedvix.notification.infrastructure;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Groups messages per exchange and routing key into one AMQP message, released when it reaches
+ * {@code batchSize} messages, would exceed {@code bufferLimit} bytes, or has waited {@code linger}.
+ * The body uses Spring AMQP's {@code lengthHeader4} batch format, which listener containers split
+ * back into individual messages before they reach the {@code @RabbitListener} methods.
+ * Compressed messages are sent on their own: listeners decompress the whole AMQP body before
+ * splitting it, and bodies over the compression threshold gain little from batching anyway.
+ * A batch carries several users, so everything sent from here drops the user id header and the
+ * {@link PublisherPool} shards it by routing key; a user's messages share a routing key, so they
+ * still share a connection and stay in order.
+ * <p>
+ * De-batching gives every message the batch's properties, so only messages whose properties are
+ * equal apart from the user id and publish time share a batch. The publish times travel in the
+ * {@link #PUBLISHED_AT_LIST_HEADER} list, which {@link NotificationBatchingStrategy} hands back to
+ * each message and {@link QueueWaitRecorder} records one by one.
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${notification.publisher.batching.enabled:false} and '${notification.transport:amqp}' == 'amqp'")
+@Slf4j
+public class BatchingPublisher implements MessagePublisher {
+
+    public static final String PUBLISHED_AT_LIST_HEADER = "x-published-at-list";
+
+    private final ConfirmingPublisher delegate;
+    private final LingerBatcher<Destination, PendingMessage> batcher;
+
+    public BatchingPublisher(ConfirmingPublisher delegate,
+                             @Value("${notification.publisher.batching.batch-size:100}") int batchSize,
+                             @Value("${notification.publisher.batching.buffer-limit:65536}") int bufferLimit,
+                             @Value("${notification.publisher.batching.linger:10ms}") Duration linger) {
+        this.delegate = delegate;
+        // Sending may block on the confirm window, which the batcher allows since it never sends under its lock
+        this.batcher = new LingerBatcher<>("notification-batch", batchSize, bufferLimit,
+                pending -> Integer.BYTES + pending.message().getBody().length, linger, this::send);
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        if (Lz4CompressingPostProcessor.isCompressed(message)) {
+            return delegate.publish(exchange, routingKey, withoutUserId(message));
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        batcher.add(Destination.of(exchange, routingKey, message.getMessageProperties()), new PendingMessage(message, future));
+        return future;
+    }
+
+    private void send(Destination destination, List<PendingMessage> batch) {
+        try {
+            Message message = batch.size() == 1 ? withoutUserId(batch.get(0).message()) : toMessage(batch);
+            CompletableFuture<Void> confirmed = delegate.publish(destination.exchange(), destination.routingKey(), message);
+            confirmed.whenComplete((ignored, ex) -> batch.forEach(pending -> {
+                if (ex == null) {
+                    pending.future().complete(null);
+                } else {
+                    pending.future().completeExceptionally(ex);
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.error("Failed to send batch of {} messages to {}", batch.size(), destination.routingKey(), e);
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+    }
+
+    // On its own copy of the properties, since the same message may be in flight for another
+    // channel's routing key on another thread
+    private static Message withoutUserId(Message message) {
+        MessageProperties properties = MessagePropertiesBuilder.fromClonedProperties(message.getMessageProperties()).build();
+        properties.getHeaders().remove(PublisherPool.USER_ID_HEADER);
+        return new Message(message.getBody(), properties);
+    }
+
+    private static Message toMessage(List<PendingMessage> batch) {
+        int bytes = 0;
+        for (PendingMessage pending : batch) {
+            bytes += Integer.BYTES + pending.message().getBody().length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(bytes);
+        List<Object> publishedAt = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            body.putInt(pending.message().getBody().length);
+            body.put(pending.message().getBody());
+            publishedAt.add(pending.message().getMessageProperties().getHeader(NotificationMessageEncoder.PUBLISHED_AT_HEADER));
+        }
+        MessageProperties properties = MessagePropertiesBuilder.fromClonedProperties(batch.get(0).message().getMessageProperties())
+                .setHeader(MessageProperties.SPRING_BATCH_FORMAT, MessageProperties.BATCH_FORMAT_LENGTH_HEADER4)
+                .setHeader(AmqpHeaders.BATCH_SIZE, batch.size())
+                .setHeader(PUBLISHED_AT_LIST_HEADER, publishedAt)
+                .setContentLength(bytes)
+                .build();
+        properties.getHeaders().remove(PublisherPool.USER_ID_HEADER);
+        properties.getHeaders().remove(NotificationMessageEncoder.PUBLISHED_AT_HEADER);
+        return new Message(body.array(), properties);
+    }
+
+    @PreDestroy
+    public void stop() {
+        batcher.close();
+    }
+
+    // Everything de-batching copies onto each message; the headers leave out what differs per message
+    private record Destination(String exchange, String routingKey, String contentType, String contentEncoding,
+                               Integer priority, Map<String, Object> headers) {
+
+        static Destination of(String exchange, String routingKey, MessageProperties properties) {
+            Map<String, Object> headers = new HashMap<>(properties.getHeaders());
+            headers.remove(PublisherPool.USER_ID_HEADER);
+            headers.remove(NotificationMessageEncoder.PUBLISHED_AT_HEADER);
+            return new Destination(exchange, routingKey, properties.getContentType(), properties.getContentEncoding(),
+                    properties.getPriority(), headers);
+        }
+    }
+
+    private record PendingMessage(Message message, CompletableFuture<Void> future) {
+    }
+}
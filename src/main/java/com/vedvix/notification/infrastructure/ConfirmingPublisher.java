@@ -0,0 +1,201 @@
+package com.vedvix.notification.infrastructure;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes with correlated publisher confirms without waiting on them. Each publish returns a
+ * future that completes when the broker acks the message; nacks and confirm timeouts are retried
+ * with exponential backoff, unroutable returns fail immediately. At most {@code maxOutstanding}
+ * messages may be unconfirmed at once, and {@link #publish} blocks the caller while the window is full.
+ * <p>
+ * While a message is waiting for a retry, later messages with the same {@link PublisherPool#orderingKey}
+ * are held back and sent in order once the retry is confirmed. If the retry gives up, the held
+ * messages fail with it instead of overtaking it. Messages already sent when the nack or timeout
+ * arrives are not recalled, so those can still land before the retried one.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "amqp", matchIfMissing = true)
+@Slf4j
+public class ConfirmingPublisher implements MessagePublisher {
+
+    private final PublisherPool publisherPool;
+    private final int maxOutstanding;
+    private final Semaphore window;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final long confirmTimeoutMillis;
+    // Ordering keys with a retry pending, guarded by itself
+    private final Map<String, Stall> stalls = new HashMap<>();
+    // Also releases held messages, so a key is only ever released by one thread
+    private final ScheduledExecutorService retryScheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-confirm-retry-"));
+
+    public ConfirmingPublisher(PublisherPool publisherPool,
+                               @Value("${notification.publisher.confirms.max-outstanding:5000}") int maxOutstanding,
+                               @Value("${notification.publisher.confirms.max-retries:3}") int maxRetries,
+                               @Value("${notification.publisher.confirms.retry-backoff:200ms}") Duration retryBackoff,
+                               @Value("${notification.publisher.confirms.timeout:10s}") Duration confirmTimeout) {
+        this.publisherPool = publisherPool;
+        this.maxOutstanding = maxOutstanding;
+        this.window = new Semaphore(maxOutstanding);
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        result.whenComplete((ignored, ex) -> window.release());
+        Publish publish = new Publish(publisherPool.orderingKey(routingKey, message), exchange, routingKey, result);
+        synchronized (stalls) {
+            Stall stall = stalls.get(publish.key());
+            if (stall != null) {
+                stall.held.add(new Held(publish, message));
+                return result;
+            }
+        }
+        send(publish, message, 0);
+        return result;
+    }
+
+    public int outstanding() {
+        return maxOutstanding - window.availablePermits();
+    }
+
+    private void send(Publish publish, Message message, int attempt) {
+        CorrelationData correlation = new CorrelationData();
+        PublisherPool.Shard shard = publisherPool.select(publish.routingKey(), message);
+        try {
+            shard.template().send(publish.exchange(), publish.routingKey(), message, correlation);
+        } catch (AmqpException e) {
+            retryOrFail(publish, message, attempt, e);
+            return;
+        }
+        shard.onSend();
+        correlation.getFuture()
+                .orTimeout(confirmTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, ex) -> {
+                    ReturnedMessage returned = correlation.getReturned();
+                    shard.onOutcome(ex == null && returned == null && confirm.isAck());
+                    if (ex != null) {
+                        retryOrFail(publish, message, attempt, ex);
+                    } else if (returned != null) {
+                        publish.result().completeExceptionally(new UnroutableMessageException("Unroutable message for "
+                                + publish.exchange() + "/" + publish.routingKey() + ": " + returned.getReplyText()));
+                        resolved(publish, attempt, null);
+                    } else if (confirm.isAck()) {
+                        publish.result().complete(null);
+                        resolved(publish, attempt, null);
+                    } else {
+                        retryOrFail(publish, message, attempt,
+                                new AmqpException("Broker nacked message: " + confirm.getReason()));
+                    }
+                });
+    }
+
+    private void retryOrFail(Publish publish, Message message, int attempt, Throwable cause) {
+        if (attempt >= maxRetries) {
+            log.error("Giving up on publish to {}/{} after {} attempts", publish.exchange(), publish.routingKey(), attempt + 1, cause);
+            publish.result().completeExceptionally(cause);
+            resolved(publish, attempt, cause);
+            return;
+        }
+        if (attempt == 0) {
+            synchronized (stalls) {
+                stalls.computeIfAbsent(publish.key(), key -> new Stall()).retrying++;
+            }
+        }
+        log.warn("Publish to {}/{} not confirmed ({}), retrying", publish.exchange(), publish.routingKey(), cause.getMessage());
+        // Copy the properties: the template writes the correlation id into them on every send
+        Message retry = new Message(message.getBody(), MessagePropertiesBuilder.fromClonedProperties(message.getMessageProperties()).build());
+        retryScheduler.schedule(() -> send(publish, retry, attempt + 1),
+                retryBackoffMillis << attempt, TimeUnit.MILLISECONDS);
+    }
+
+    // A retried message has its outcome; once its key has no retries left, the held messages go out
+    private void resolved(Publish publish, int attempt, Throwable failure) {
+        if (attempt == 0) {
+            return;
+        }
+        synchronized (stalls) {
+            Stall stall = stalls.get(publish.key());
+            if (failure != null && stall.failure == null) {
+                stall.failure = failure;
+            }
+            if (--stall.retrying > 0) {
+                return;
+            }
+        }
+        retryScheduler.execute(() -> release(publish.key()));
+    }
+
+    private void release(String key) {
+        while (true) {
+            Held next;
+            Throwable failure;
+            synchronized (stalls) {
+                Stall stall = stalls.get(key);
+                // A released message is being retried in turn, whatever is left waits for it
+                if (stall == null || stall.retrying > 0) {
+                    return;
+                }
+                next = stall.held.poll();
+                if (next == null) {
+                    stalls.remove(key);
+                    return;
+                }
+                failure = stall.failure;
+            }
+            if (failure != null) {
+                next.publish().result().completeExceptionally(failure);
+            } else {
+                send(next.publish(), next.message(), 0);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        retryScheduler.shutdown();
+    }
+
+    private record Publish(String key, String exchange, String routingKey, CompletableFuture<Void> result) {
+    }
+
+    private record Held(Publish publish, Message message) {
+    }
+
+    private static final class Stall {
+        private final Deque<Held> held = new ArrayDeque<>();
+        private int retrying;
+        private Throwable failure;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vedvix.notification.infrastructure;
+
+import com.vedvix.notification.config.ScheduleConfig;
+import com.vedvix.notification.dto.NotificationRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parks future-dated notifications in the broker. A message goes to the longest delay tier that
+ * does not overshoot its due time; when the tier's TTL expires it is dead-lettered to the due
+ * queue, where it is either parked again in a shorter tier or, once less than the shortest tier
+ * remains, held for the rest of its delay and published to its channels. Nothing is stored or
+ * polled outside RabbitMQ.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "amqp", matchIfMissing = true)
+@Slf4j
+public class DelayLadder {
+
+    public static final String DELIVER_AT_HEADER = "x-deliver-at";
+
+    // Never the batching publisher: every notification has its own deliver-at, so nothing would
+    // share a batch and each hop would only wait out the linger
+    private final ConfirmingPublisher messagePublisher;
+    private final NotificationMessageEncoder encoder;
+    private final MessagingProducer producer;
+    private final ScheduleConfig config;
+    private final List<Duration> tiers;
+    private final Duration shortestTier;
+    // Holds notifications for the last stretch below the shortest tier; their messages stay unacked
+    // meanwhile, so anything still waiting at shutdown is redelivered
+    private final ScheduledExecutorService remainders =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-delay-"));
+
+    public DelayLadder(ConfirmingPublisher messagePublisher,
+                       NotificationMessageEncoder encoder,
+                       MessagingProducer producer,
+                       ScheduleConfig config) {
+        this.messagePublisher = messagePublisher;
+        this.encoder = encoder;
+        this.producer = producer;
+        this.config = config;
+        this.tiers = config.getTiers().stream().sorted(Comparator.reverseOrder()).toList();
+        this.shortestTier = tiers.get(tiers.size() - 1);
+    }
+
+    /**
+     * Parks the request until {@code deliverAtMillis}. When that is within the shortest tier the
+     * request is published once it is due instead.
+     */
+    public CompletableFuture<Void> park(NotificationRequest request, long deliverAtMillis) {
+        long remaining = deliverAtMillis - System.currentTimeMillis();
+        Duration tier = tier(tiers, remaining);
+        if (tier != null) {
+            return parkIn(tier, request, deliverAtMillis);
+        }
+        if (remaining <= 0) {
+            return producer.publish(request);
+        }
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        remainders.schedule(() -> {
+            try {
+                producer.publish(request).whenComplete((ignored, ex) -> {
+                    if (ex == null) {
+                        published.complete(null);
+                    } else {
+                        published.completeExceptionally(ex);
+                    }
+                });
+            } catch (RuntimeException e) {
+                published.completeExceptionally(e);
+            }
+        }, remaining, TimeUnit.MILLISECONDS);
+        return published;
+    }
+
+    /**
+     * Moves an expired message on without holding the consumer; the container acks it once the
+     * next hop is confirmed. A failed hop goes back into the shortest tier and is tried again when
+     * that expires, instead of being requeued straight into a redelivery loop. Only when that
+     * fails as well is the message rejected and requeued.
+     */
+    @RabbitListener(queues = "${notification.schedule.due-queue:notification_delay_due}",
+            concurrency = "${notification.schedule.due-concurrency:2-8}")
+    public CompletableFuture<Void> onTierExpired(NotificationRequest request, @Header(DELIVER_AT_HEADER) long deliverAt) {
+        return park(request, deliverAt).exceptionallyCompose(ex -> {
+            if (UnroutableMessageException.isCause(ex)) {
+                log.error("Dropping scheduled notification {}, it cannot be routed", request.getNotificationId(), ex);
+                return CompletableFuture.completedFuture(null);
+            }
+            log.warn("Failed to move scheduled notification {} on ({}), retrying after the {} tier",
+                    request.getNotificationId(), ex.getMessage(), shortestTier);
+            return parkIn(shortestTier, request, deliverAt);
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        remainders.shutdownNow();
+    }
+
+    private CompletableFuture<Void> parkIn(Duration tier, NotificationRequest request, long deliverAtMillis) {
+        Message message = encoder.encode(request);
+        message.getMessageProperties().setHeader(DELIVER_AT_HEADER, deliverAtMillis);
+        return messagePublisher.publish(config.getExchange(), config.tierQueue(tier), message);
+    }
+
+    // The longest tier that does not overshoot the remaining delay, or null when even the shortest would
+    static Duration tier(List<Duration> longestFirst, long remainingMillis) {
+        for (Duration tier : longestFirst) {
+            if (tier.toMillis() <= remainingMillis) {
+                return tier;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vedvix.notification.infrastructure;
+
+import com.vedvix.notification.dto.NotificationRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off between the HTTP threads and wherever accepted notifications are made durable.
+ * Requests are queued in memory and a small pool of threads drains them in batches; subclasses
+ * decide what to do with a batch and when each request's future completes. Every thread has its
+ * own queue and a user's requests always hash to the same one, so they are processed in the order
+ * they were accepted. The capacity is split evenly between the queues.
+ */
+@Slf4j
+public abstract class IngestQueue {
+
+    private final String name;
+    private final List<BlockingQueue<Pending>> queues;
+    private final int batchSize;
+    private ExecutorService drainers;
+    private volatile boolean running;
+
+    protected IngestQueue(String name, int capacity, int threads, int batchSize) {
+        this.name = name;
+        this.queues = new ArrayList<>(threads);
+        int perThread = Math.max(1, (capacity + threads - 1) / threads);
+        for (int i = 0; i < threads; i++) {
+            queues.add(new ArrayBlockingQueue<>(perThread));
+        }
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainers = Executors.newFixedThreadPool(queues.size(), new CustomizableThreadFactory(name + "-"));
+        for (BlockingQueue<Pending> queue : queues) {
+            drainers.execute(() -> drainLoop(queue));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        drainers.shutdown();
+        if (!drainers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} stopped with {} notifications still queued", name, queued());
+        }
+    }
+
+    /**
+     * Queues the request on its user's queue, waiting at most {@code admissionTimeout} for space.
+     * Returns {@code null} when that queue is still full after the timeout.
+     */
+    public CompletableFuture<Void> submit(NotificationRequest request, Duration admissionTimeout) {
+        Pending pending = new Pending(request, new CompletableFuture<>());
+        String userId = request.getUserId();
+        BlockingQueue<Pending> queue = queues.get(userId == null ? 0 : Math.floorMod(userId.hashCode(), queues.size()));
+        try {
+            boolean queued = admissionTimeout.isZero()
+                    ? queue.offer(pending)
+                    : queue.offer(pending, admissionTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return queued ? pending.future() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public int queued() {
+        int queued = 0;
+        for (BlockingQueue<Pending> queue : queues) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    protected abstract void process(List<Pending> batch);
+
+    private void drainLoop(BlockingQueue<Pending> queue) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("{} failed to process a batch of {} notifications", name, batch.size(), e);
+                batch.forEach(pending -> pending.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    protected record Pending(NotificationRequest request, CompletableFuture<Void> future) {
+    }
+}
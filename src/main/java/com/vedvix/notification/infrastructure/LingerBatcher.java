@@ -0,0 +1,121 @@
+package com.vedvix.notification.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Groups items per key and hands each group to {@code sink} once it holds {@code maxItems} items,
+ * would exceed {@code maxWeight}, or has waited {@code linger}. The sink runs on the thread that
+ * completed the group, or on the flusher thread for lingering groups, never under the lock, so
+ * it may block. {@link #close()} stops the flusher and hands over whatever is still pending.
+ */
+@Slf4j
+public class LingerBatcher<K, T> implements AutoCloseable {
+
+    private final int maxItems;
+    private final int maxWeight;
+    private final ToIntFunction<T> weigher;
+    private final long lingerNanos;
+    private final BiConsumer<K, List<T>> sink;
+    private final Map<K, Group<T>> groups = new HashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public LingerBatcher(String name, int maxItems, Duration linger, BiConsumer<K, List<T>> sink) {
+        this(name, maxItems, Integer.MAX_VALUE, item -> 0, linger, sink);
+    }
+
+    public LingerBatcher(String name, int maxItems, int maxWeight, ToIntFunction<T> weigher, Duration linger,
+                         BiConsumer<K, List<T>> sink) {
+        this.maxItems = maxItems;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.lingerNanos = linger.toNanos();
+        this.sink = sink;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(name + "-flush-"));
+        long tick = Math.max(1, linger.toMillis() / 2);
+        flusher.scheduleWithFixedDelay(this::flushExpired, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    public void add(K key, T item) {
+        int weight = weigher.applyAsInt(item);
+        List<Ready<K, T>> ready = new ArrayList<>(2);
+        synchronized (groups) {
+            Group<T> group = groups.get(key);
+            if (group != null && (long) group.weight + weight > maxWeight) {
+                ready.add(new Ready<>(key, groups.remove(key).items));
+                group = null;
+            }
+            if (group == null) {
+                group = new Group<>(System.nanoTime());
+                groups.put(key, group);
+            }
+            group.items.add(item);
+            group.weight += weight;
+            if (group.items.size() >= maxItems) {
+                ready.add(new Ready<>(key, groups.remove(key).items));
+            }
+        }
+        ready.forEach(this::send);
+    }
+
+    private void flushExpired() {
+        List<Ready<K, T>> ready = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (groups) {
+            Iterator<Map.Entry<K, Group<T>>> it = groups.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Group<T>> entry = it.next();
+                if (now - entry.getValue().startedAt >= lingerNanos) {
+                    ready.add(new Ready<>(entry.getKey(), entry.getValue().items));
+                    it.remove();
+                }
+            }
+        }
+        ready.forEach(this::send);
+    }
+
+    // An exception escaping here would silently cancel the flusher's schedule
+    private void send(Ready<K, T> ready) {
+        try {
+            sink.accept(ready.key(), ready.items());
+        } catch (RuntimeException e) {
+            log.error("Failed to hand over a batch of {} for {}", ready.items().size(), ready.key(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        List<Ready<K, T>> remaining = new ArrayList<>();
+        synchronized (groups) {
+            groups.forEach((key, group) -> remaining.add(new Ready<>(key, group.items)));
+            groups.clear();
+        }
+        remaining.forEach(this::send);
+    }
+
+    private static final class Group<T> {
+        private final long startedAt;
+        private final List<T> items = new ArrayList<>();
+        private long weight;
+
+        private Group(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    private record Ready<K, T>(K key, List<T> items) {
+    }
+}
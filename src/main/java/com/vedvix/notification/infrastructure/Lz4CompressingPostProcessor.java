@@ -0,0 +1,49 @@
+package com.vedvix.notification.infrastructure;
+
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.postprocessor.AbstractCompressingPostProcessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * LZ4 frame compression for bodies of at least {@code threshold} bytes. The content encoding
+ * becomes {@code lz4:<original>}, which {@link Lz4DecompressingPostProcessor} reverses on receive;
+ * smaller bodies are passed through untouched to avoid paying the codec on the latency path.
+ */
+public class Lz4CompressingPostProcessor extends AbstractCompressingPostProcessor {
+
+    public static final String ENCODING = "lz4";
+
+    private final int threshold;
+
+    public Lz4CompressingPostProcessor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) {
+        if (message.getBody().length < threshold) {
+            return message;
+        }
+        Message compressed = super.postProcessMessage(message);
+        compressed.getMessageProperties().setContentLength(compressed.getBody().length);
+        return compressed;
+    }
+
+    @Override
+    protected OutputStream getCompressorStream(OutputStream stream) throws IOException {
+        return new LZ4FrameOutputStream(stream);
+    }
+
+    @Override
+    protected String getEncoding() {
+        return ENCODING;
+    }
+
+    public static boolean isCompressed(Message message) {
+        String encoding = message.getMessageProperties().getContentEncoding();
+        return encoding != null && encoding.startsWith(ENCODING);
+    }
+}
@@ -0,0 +1,20 @@
+package com.vedvix.notification.infrastructure;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import org.springframework.amqp.support.postprocessor.AbstractDecompressingPostProcessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public class Lz4DecompressingPostProcessor extends AbstractDecompressingPostProcessor {
+
+    @Override
+    protected InputStream getDeCompressorStream(InputStream stream) throws IOException {
+        return new LZ4FrameInputStream(stream);
+    }
+
+    @Override
+    protected String getEncoding() {
+        return Lz4CompressingPostProcessor.ENCODING;
+    }
+}
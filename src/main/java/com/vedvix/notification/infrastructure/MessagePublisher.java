@@ -0,0 +1,13 @@
+package com.vedvix.notification.infrastructure;
+
+import org.springframework.amqp.core.Message;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface MessagePublisher {
+
+    /**
+     * @return a future completed once the broker has confirmed the message
+     */
+    CompletableFuture<Void> publish(String exchange, String routingKey, Message message);
+}
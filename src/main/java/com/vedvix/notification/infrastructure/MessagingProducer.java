@@ -1,26 +1,49 @@
 package com.vedvix.notification.infrastructure;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vedvix.notification.dto.ChannelType;
 import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.routing.Route;
+import com.vedvix.notification.routing.RoutingTable;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @RequiredArgsConstructor
 public class MessagingProducer {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    public static final String PROVIDER_HEADER = "x-provider";
+
+    private final MessagePublisher messagePublisher;
+    private final NotificationMessageEncoder encoder;
+    private final RoutingTable routingTable;
+
+    /**
+     * Encodes the request once and publishes the same body to the route of every requested channel.
+     */
+    public CompletableFuture<Void> publish(NotificationRequest request) {
+        Message encoded = encoder.encode(request);
+        List<ChannelType> channels = request.getChannels();
+        CompletableFuture<?>[] confirms = new CompletableFuture[channels.size()];
+        for (int i = 0; i < confirms.length; i++) {
+            Route route = routingTable.route(request.getProjectId(), channels.get(i), request.getPriority());
+            confirms[i] = messagePublisher.publish(route.exchange(), route.routingKey(request.getUserId()), forRoute(encoded, route));
+        }
+        return CompletableFuture.allOf(confirms);
+    }
 
-    public void publishToQueue(ChannelType channel, NotificationRequest request) {
-        try {
-            String message = objectMapper.writeValueAsString(request);
-            rabbitTemplate.convertAndSend("notification.exchange", "notify." + channel.name().toLowerCase(), message);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize notification", e);
+    public static Message forRoute(Message encoded, Route route) {
+        MessageProperties properties = MessagePropertiesBuilder.fromClonedProperties(encoded.getMessageProperties())
+                .setHeader(PROVIDER_HEADER, route.provider())
+                .build();
+        if (route.priority() > 0) {
+            properties.setPriority(route.priority());
         }
+        return new Message(encoded.getBody(), properties);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.vedvix.notification.infrastructure;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits {@code lengthHeader4} batches like Spring AMQP's default strategy, and gives each message
+ * of a {@link BatchingPublisher} batch its own publish time back. The default shares one
+ * {@link MessageProperties} between the messages of a batch, so every message here gets a copy.
+ * Only used to de-batch; the container never batches with it.
+ */
+public class NotificationBatchingStrategy extends SimpleBatchingStrategy {
+
+    public NotificationBatchingStrategy() {
+        super(0, 0, 0L);
+    }
+
+    @Override
+    public void deBatch(Message message, Consumer<Message> fragmentListener) {
+        List<?> publishedAt = message.getMessageProperties().getHeader(BatchingPublisher.PUBLISHED_AT_LIST_HEADER);
+        if (publishedAt == null) {
+            super.deBatch(message, fragmentListener);
+            return;
+        }
+        message.getMessageProperties().getHeaders().remove(BatchingPublisher.PUBLISHED_AT_LIST_HEADER);
+        int[] index = {0};
+        super.deBatch(message, fragment -> {
+            MessageProperties shared = fragment.getMessageProperties();
+            MessageProperties properties = MessagePropertiesBuilder.fromClonedProperties(shared)
+                    .setHeader(NotificationMessageEncoder.PUBLISHED_AT_HEADER, publishedAt.get(index[0]++))
+                    .build();
+            properties.setLastInBatch(shared.isLastInBatch());
+            fragmentListener.accept(new Message(fragment.getBody(), properties));
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.vedvix.notification.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style ids: 41 bits of milliseconds since 2025-01-01, 10 bits of node id and a 12 bit
+ * per-millisecond sequence, rendered as 13 Crockford base32 characters so they sort by creation time.
+ */
+@Component
+@Slf4j
+public class NotificationIdGenerator {
+
+    private static final long EPOCH = 1735689600000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+    // (millis << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public NotificationIdGenerator(@Value("${notification.id.node-id:-1}") long nodeId) {
+        this.nodeId = (nodeId >= 0 ? nodeId : hostNodeId()) & NODE_MASK;
+        log.info("Notification id generator using node id {}", this.nodeId);
+    }
+
+    public String nextId() {
+        long id = nextLongId();
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public long nextLongId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long last = lastState.get();
+            // Same millisecond, sequence overflow or a clock step backwards all just advance the
+            // previous state, which keeps ids strictly increasing without ever blocking
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private static long hostNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode();
+        } catch (UnknownHostException e) {
+            return ProcessHandle.current().pid();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.vedvix.notification.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes a request to bytes once, so the same {@link Message} can be sent to every channel
+ * routing key. JSON messages carry the headers {@code Jackson2JsonMessageConverter} writes;
+ * Smile messages are decoded by {@link SmileMessageConverter}. Both carry the schema version.
+ * Bodies above the compression threshold are LZ4 compressed once here rather than per channel.
+ */
+@Component
+public class NotificationMessageEncoder {
+
+    public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+    public static final int SCHEMA_VERSION = 1;
+    public static final String PRIORITY_HEADER = "x-notification-priority";
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
+
+    private final WireFormat format;
+    private final ObjectMapper mapper;
+    private final Lz4CompressingPostProcessor compressor;
+
+    public NotificationMessageEncoder(ObjectMapper objectMapper,
+                                      @Value("${notification.wire.format:json}") WireFormat format,
+                                      @Value("${notification.compression.enabled:true}") boolean compression,
+                                      @Value("${notification.compression.threshold:4096}") int compressionThreshold) {
+        this.format = format;
+        this.mapper = format == WireFormat.SMILE ? SmileMessageConverter.newMapper() : objectMapper;
+        this.compressor = compression ? new Lz4CompressingPostProcessor(compressionThreshold) : null;
+    }
+
+    public Message encode(NotificationRequest request) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize notification", e);
+        }
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(format.contentType());
+        if (format == WireFormat.JSON) {
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        }
+        properties.setContentLength(body.length);
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, NotificationRequest.class.getName());
+        properties.setHeader(SCHEMA_VERSION_HEADER, SCHEMA_VERSION);
+        properties.setHeader(PublisherPool.USER_ID_HEADER, request.getUserId());
+        properties.setHeader(PRIORITY_HEADER, String.valueOf(request.getPriority()));
+        properties.setHeader(PUBLISHED_AT_HEADER, System.currentTimeMillis());
+        Message message = new Message(body, properties);
+        return compressor != null ? compressor.postProcessMessage(message) : message;
+    }
+}
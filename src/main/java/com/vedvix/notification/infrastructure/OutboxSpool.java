@@ -0,0 +1,284 @@
+package com.vedvix.notification.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.NotificationRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only spool of notifications that could not be published, stored in fixed-size
+ * memory-mapped segment files. Each record is {@code [length][crc32c][json]}; a zero length marks
+ * the end of the written data in a segment. The read position is checkpointed to a separate file
+ * and fully relayed segments are deleted.
+ * <p>
+ * Once anything is spooled the spool stays active, and new notifications are appended behind it
+ * instead of being published, so {@link SpoolRelay} delivers them in arrival order.
+ * Appends reach the page cache immediately and survive a process crash; {@link #sync()} flushes
+ * them to disk and is called by the relay on every tick.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.spool.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxSpool {
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Path checkpointFile;
+    private final int segmentSize;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private int writePosition;
+    private long readSegment;
+    private MappedByteBuffer readBuffer;
+    private int readPosition;
+    private boolean active;
+
+    public OutboxSpool(ObjectMapper objectMapper,
+                       @Value("${notification.spool.directory:data/spool}") Path directory,
+                       @Value("${notification.spool.segment-size:67108864}") int segmentSize) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.checkpointFile = directory.resolve("checkpoint");
+        this.segmentSize = segmentSize;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments();
+        writeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        writeBuffer = map(writeSegment);
+        writePosition = scanEnd(writeBuffer);
+
+        readSegment = segments.isEmpty() ? 0 : segments.get(0);
+        readPosition = 0;
+        if (Files.exists(checkpointFile)) {
+            ByteBuffer checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointFile));
+            long segment = checkpoint.getLong();
+            if (segment >= readSegment) {
+                readSegment = segment;
+                readPosition = checkpoint.getInt();
+            }
+        }
+        readBuffer = readSegment == writeSegment ? writeBuffer : map(readSegment);
+        active = hasUnread();
+        if (active) {
+            log.warn("Outbox spool has unrelayed notifications from segment {} onwards", readSegment);
+        }
+    }
+
+    /**
+     * Appends the request only if the spool is already holding notifications, which keeps
+     * arrival order while a backlog is being relayed.
+     */
+    public synchronized boolean appendIfActive(NotificationRequest request) {
+        if (!active) {
+            return false;
+        }
+        append(request);
+        return true;
+    }
+
+    public synchronized void append(NotificationRequest request) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize notification for the spool", e);
+        }
+        if (payload.length + HEADER_BYTES > segmentSize - Integer.BYTES) {
+            throw new IllegalArgumentException("Notification of " + payload.length + " bytes does not fit a spool segment");
+        }
+        if (writePosition + HEADER_BYTES + payload.length > segmentSize - Integer.BYTES) {
+            roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        writeBuffer.put(writePosition + HEADER_BYTES, payload);
+        writeBuffer.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+        writeBuffer.putInt(writePosition + HEADER_BYTES + payload.length, 0);
+        // Length goes last, so a torn write never looks like a complete record
+        writeBuffer.putInt(writePosition, payload.length);
+        writePosition += HEADER_BYTES + payload.length;
+        active = true;
+    }
+
+    /**
+     * Reads up to {@code max} records from the read position without consuming them.
+     */
+    public synchronized SpoolBatch read(int max) {
+        List<NotificationRequest> requests = new ArrayList<>();
+        long segment = readSegment;
+        int position = readPosition;
+        MappedByteBuffer buffer = readBuffer;
+        while (requests.size() < max) {
+            if (segment == writeSegment && position >= writePosition) {
+                break;
+            }
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                if (segment == writeSegment) {
+                    break;
+                }
+                segment++;
+                position = 0;
+                buffer = segment == writeSegment ? writeBuffer : map(segment);
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                throw new IllegalStateException("Corrupt spool record in segment " + segment + " at " + position);
+            }
+            try {
+                requests.add(objectMapper.readValue(payload, NotificationRequest.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unreadable spool record in segment " + segment + " at " + position, e);
+            }
+            position += HEADER_BYTES + length;
+        }
+        return new SpoolBatch(requests, segment, position, buffer);
+    }
+
+    /**
+     * Moves the read position past a relayed batch, deleting segments it has finished.
+     */
+    public synchronized void commit(SpoolBatch batch) {
+        for (long segment = readSegment; segment < batch.segment(); segment++) {
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                log.warn("Failed to delete relayed spool segment {}", segment, e);
+            }
+        }
+        readSegment = batch.segment();
+        readPosition = batch.position();
+        readBuffer = batch.buffer();
+        writeCheckpoint();
+    }
+
+    /**
+     * Turns the spool off once the relay has caught up with the writers.
+     *
+     * @return whether the spool is now drained
+     */
+    public synchronized boolean deactivateIfDrained() {
+        if (!hasUnread()) {
+            active = false;
+        }
+        return !active;
+    }
+
+    public synchronized boolean isActive() {
+        return active;
+    }
+
+    public synchronized void sync() {
+        writeBuffer.force();
+    }
+
+    @PreDestroy
+    public void close() {
+        sync();
+    }
+
+    private boolean hasUnread() {
+        return readSegment < writeSegment || readPosition < writePosition;
+    }
+
+    private void roll() {
+        writeBuffer.force();
+        writeSegment++;
+        writeBuffer = map(writeSegment);
+        writePosition = 0;
+        log.info("Outbox spool rolled to segment {}", writeSegment);
+    }
+
+    private int scanEnd(MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentSize - Integer.BYTES) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentSize - Integer.BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                log.warn("Discarding torn spool record at {}", position);
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        buffer.putInt(position, 0);
+        return position;
+    }
+
+    private MappedByteBuffer map(long segment) {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map spool segment " + segment, e);
+        }
+    }
+
+    private void writeCheckpoint() {
+        ByteBuffer checkpoint = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+                .putLong(readSegment)
+                .putInt(readPosition);
+        try {
+            Path tmp = directory.resolve("checkpoint.tmp");
+            Files.write(tmp, checkpoint.array());
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to checkpoint outbox spool", e);
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    public record SpoolBatch(List<NotificationRequest> requests, long segment, int position, MappedByteBuffer buffer) {
+        public boolean isEmpty() {
+            return requests.isEmpty();
+        }
+    }
+}
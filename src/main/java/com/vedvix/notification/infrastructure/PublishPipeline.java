@@ -0,0 +1,82 @@
+package com.vedvix.notification.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-memory ingest: accepted requests are published by a small pool of publisher threads, each
+ * user's requests by the same thread in the order they were accepted.
+ * A request's future completes once the broker has confirmed it on every channel, or once it
+ * is in the {@link OutboxSpool} when the broker is unavailable. A request that fails after its
+ * retries is spooled before the user's later requests, which {@link ConfirmingPublisher} fails with
+ * it, so the relay replays them in order.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.ingest.durability", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class PublishPipeline extends IngestQueue {
+
+    private final MessagingProducer producer;
+    private final OutboxSpool spool;
+
+    public PublishPipeline(MessagingProducer producer,
+                           ObjectProvider<OutboxSpool> spool,
+                           @Value("${notification.ingest.pipeline.capacity:10000}") int capacity,
+                           @Value("${notification.ingest.pipeline.publisher-threads:4}") int publisherThreads,
+                           @Value("${notification.ingest.pipeline.batch-size:100}") int batchSize) {
+        super("notification-publisher", capacity, publisherThreads, batchSize);
+        this.producer = producer;
+        this.spool = spool.getIfAvailable();
+    }
+
+    @Override
+    protected void process(List<Pending> batch) {
+        for (Pending pending : batch) {
+            try {
+                if (spool != null && spool.appendIfActive(pending.request())) {
+                    pending.future().complete(null);
+                    continue;
+                }
+                producer.publish(pending.request()).whenComplete((ignored, ex) -> {
+                    if (ex == null) {
+                        pending.future().complete(null);
+                    } else if (spool != null && isBrokerFailure(ex)) {
+                        spoolOrFail(pending, ex);
+                    } else {
+                        pending.future().completeExceptionally(ex);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to publish notification {}", pending.request().getNotificationId(), e);
+                pending.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void spoolOrFail(Pending pending, Throwable cause) {
+        try {
+            spool.append(pending.request());
+            log.warn("Broker unavailable, spooled notification {}", pending.request().getNotificationId());
+            pending.future().complete(null);
+        } catch (RuntimeException e) {
+            e.addSuppressed(cause);
+            pending.future().completeExceptionally(e);
+        }
+    }
+
+    // Unroutable messages are a routing mistake, spooling them would only replay the failure
+    private static boolean isBrokerFailure(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnroutableMessageException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.vedvix.notification.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitConnectionDetails;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Stripes publishing over several dedicated connections, each with its own channel cache, so one
+ * TCP socket is no longer the ceiling. Publishes are pinned to a connection by a hash of the
+ * user id header (or the routing key), retries included, so one user's messages never race each
+ * other across connections. Each connection uses the configured broker address list and fails
+ * over like Boot's own. Publishing also stays off the connection the listener containers consume on.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "amqp", matchIfMissing = true)
+@Slf4j
+public class PublisherPool {
+
+    public static final String USER_ID_HEADER = "x-user-id";
+
+    private final List<Shard> shards;
+    private final boolean shardByUserId;
+
+    public PublisherPool(CachingConnectionFactory connectionFactory,
+                         RabbitConnectionDetails connectionDetails,
+                         RabbitProperties rabbitProperties,
+                         MessageConverter messageConverter,
+                         MeterRegistry meterRegistry,
+                         @Value("${notification.publisher.pool.connections:2}") int connections,
+                         @Value("${notification.publisher.pool.channel-cache-size:25}") int channelCacheSize,
+                         @Value("${notification.publisher.pool.shard-by:user-id}") String shardBy) {
+        this.shardByUserId = "user-id".equals(shardBy);
+        this.shards = new ArrayList<>(connections);
+        String addresses = connectionDetails.getAddresses().stream()
+                .map(address -> address.host() + ":" + address.port())
+                .collect(Collectors.joining(","));
+        for (int i = 0; i < connections; i++) {
+            String name = "notification-publisher-" + i;
+            CachingConnectionFactory shardFactory = new CachingConnectionFactory(connectionFactory.getRabbitConnectionFactory());
+            shardFactory.setAddresses(addresses);
+            shardFactory.setAddressShuffleMode(rabbitProperties.getAddressShuffleMode());
+            shardFactory.setVirtualHost(connectionFactory.getVirtualHost());
+            shardFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+            shardFactory.setPublisherReturns(true);
+            shardFactory.setChannelCacheSize(channelCacheSize);
+            shardFactory.setConnectionNameStrategy(factory -> name);
+
+            RabbitTemplate template = new RabbitTemplate(shardFactory);
+            template.setMessageConverter(messageConverter);
+            template.setMandatory(true);
+            shards.add(new Shard(i, shardFactory, template, meterRegistry));
+        }
+        log.info("Publishing over {} connections, sharded by {}", connections, shardByUserId ? "user id" : "routing key");
+    }
+
+    // For tests, over templates that never touch a broker
+    PublisherPool(List<Shard> shards, boolean shardByUserId) {
+        this.shards = shards;
+        this.shardByUserId = shardByUserId;
+    }
+
+    /**
+     * Picks the connection for a message. A retry gets the same connection as the first attempt:
+     * moving it would let it race the messages sent after it, and a broken connection is
+     * re-established against the address list anyway.
+     */
+    public Shard select(String routingKey, Message message) {
+        return shards.get(Math.floorMod(orderingKey(routingKey, message).hashCode(), shards.size()));
+    }
+
+    /**
+     * The key messages are sharded by: the user id header, or the routing key. Messages with the
+     * same key go out on one connection in the order they were sent.
+     */
+    public String orderingKey(String routingKey, Message message) {
+        Object userId = message.getMessageProperties().getHeader(USER_ID_HEADER);
+        return shardByUserId && userId != null ? userId.toString() : routingKey;
+    }
+
+    @PreDestroy
+    public void stop() {
+        shards.forEach(shard -> shard.connectionFactory.destroy());
+    }
+
+    public static final class Shard {
+        private final CachingConnectionFactory connectionFactory;
+        private final RabbitTemplate template;
+        private final Counter published;
+        private final Counter confirmed;
+        private final Counter failed;
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        Shard(int index, CachingConnectionFactory connectionFactory, RabbitTemplate template, MeterRegistry meterRegistry) {
+            String connection = String.valueOf(index);
+            this.connectionFactory = connectionFactory;
+            this.template = template;
+            this.published = Counter.builder("notification.publisher.published").tag("connection", connection).register(meterRegistry);
+            this.confirmed = Counter.builder("notification.publisher.confirmed").tag("connection", connection).register(meterRegistry);
+            this.failed = Counter.builder("notification.publisher.failed").tag("connection", connection).register(meterRegistry);
+            Gauge.builder("notification.publisher.outstanding", outstanding, AtomicInteger::get)
+                    .tag("connection", connection)
+                    .register(meterRegistry);
+        }
+
+        public RabbitTemplate template() {
+            return template;
+        }
+
+        public void onSend() {
+            published.increment();
+            outstanding.incrementAndGet();
+        }
+
+        public void onOutcome(boolean ack) {
+            outstanding.decrementAndGet();
+            (ack ? confirmed : failed).increment();
+        }
+    }
+}
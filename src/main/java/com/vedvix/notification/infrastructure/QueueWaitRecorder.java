@@ -0,0 +1,72 @@
+package com.vedvix.notification.infrastructure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long a message sat in its queue, from the publish timestamp the encoder stamps to
+ * the moment a listener container receives it, as {@code notification.queue.wait} tagged with the
+ * queue and priority lane. Clock skew between publisher and consumer hosts shows up in the values.
+ * A {@link BatchingPublisher} batch arrives here before it is split and records one wait per message.
+ * <p>
+ * Also counts the messages each queue's consumers have taken up, which the adaptive concurrency
+ * controller reads as work in progress that the broker no longer reports as ready.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueWaitRecorder implements MessagePostProcessor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> delivered = new ConcurrentHashMap<>();
+
+    @Override
+    public Message postProcessMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        Object publishedAt = properties.getHeader(NotificationMessageEncoder.PUBLISHED_AT_HEADER);
+        List<?> batchPublishedAt = properties.getHeader(BatchingPublisher.PUBLISHED_AT_LIST_HEADER);
+        String queue = String.valueOf(properties.getConsumerQueue());
+        delivered.computeIfAbsent(queue, key -> new LongAdder()).add(batchPublishedAt != null ? batchPublishedAt.size() : 1);
+        if (publishedAt == null && batchPublishedAt == null) {
+            return message;
+        }
+        String priority = String.valueOf((Object) properties.getHeader(NotificationMessageEncoder.PRIORITY_HEADER));
+        Timer timer = timers.computeIfAbsent(queue + '\u0000' + priority, key -> Timer.builder("notification.queue.wait")
+                .tag("queue", queue)
+                .tag("priority", priority)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+        long now = System.currentTimeMillis();
+        if (batchPublishedAt != null) {
+            batchPublishedAt.forEach(each -> record(timer, now, each));
+        } else {
+            record(timer, now, publishedAt);
+        }
+        return message;
+    }
+
+    /**
+     * Messages taken up by the queue's consumers since the previous call for that queue.
+     */
+    public long deliveredAndReset(String queue) {
+        LongAdder count = delivered.get(queue);
+        return count == null ? 0 : count.sumThenReset();
+    }
+
+    private static void record(Timer timer, long now, Object publishedAt) {
+        if (publishedAt instanceof Number millis) {
+            timer.record(Math.max(0, now - millis.longValue()), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vedvix.notification.infrastructure;
+
+import com.rabbitmq.client.AMQP;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.routing.Route;
+import com.vedvix.notification.routing.RoutingTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.ChannelPool;
+import reactor.rabbitmq.OutboundMessage;
+import reactor.rabbitmq.SendOptions;
+import reactor.rabbitmq.Sender;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveMessagingProducer {
+
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+    private final Sender sender;
+    private final ChannelPool reactiveChannelPool;
+    private final NotificationMessageEncoder encoder;
+    private final RoutingTable routingTable;
+
+    /**
+     * Publishes the request to every channel queue and completes once the broker has confirmed
+     * all of them, without holding a thread while the confirms are outstanding.
+     */
+    public Mono<Void> publish(NotificationRequest request) {
+        Message encoded;
+        try {
+            encoded = encoder.encode(request);
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+        Flux<OutboundMessage> messages = Flux.fromIterable(request.getChannels())
+                .map(channel -> {
+                    Route route = routingTable.route(request.getProjectId(), channel, request.getPriority());
+                    AMQP.BasicProperties properties = propertiesConverter.fromMessageProperties(
+                            MessagingProducer.forRoute(encoded, route).getMessageProperties(), StandardCharsets.UTF_8.name());
+                    return new OutboundMessage(route.exchange(), route.routingKey(request.getUserId()), properties, encoded.getBody());
+                });
+        return sender.sendWithPublishConfirms(messages, new SendOptions().channelPool(reactiveChannelPool))
+                .flatMap(result -> result.isAck()
+                        ? Mono.empty()
+                        : Mono.error(new IllegalStateException("Broker rejected notification " + request.getNotificationId())))
+                .then();
+    }
+}
@@ -0,0 +1,63 @@
+package com.vedvix.notification.infrastructure;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.vedvix.notification.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Binary (Smile) counterpart of {@code Jackson2JsonMessageConverter}. The body is read as the
+ * listener's parameter type, falling back to {@link NotificationRequest}, and messages written
+ * with a newer schema version than this build knows are rejected instead of half-parsed.
+ */
+public class SmileMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper = newMapper();
+
+    public static ObjectMapper newMapper() {
+        return SmileMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        byte[] body;
+        try {
+            body = smileMapper.writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to write Smile body", e);
+        }
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        messageProperties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, object.getClass().getName());
+        messageProperties.setHeader(NotificationMessageEncoder.SCHEMA_VERSION_HEADER, NotificationMessageEncoder.SCHEMA_VERSION);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        Object version = properties.getHeader(NotificationMessageEncoder.SCHEMA_VERSION_HEADER);
+        if (version instanceof Number number && number.intValue() > NotificationMessageEncoder.SCHEMA_VERSION) {
+            throw new MessageConversionException("Unsupported notification schema version " + version);
+        }
+        Type inferred = properties.getInferredArgumentType();
+        Class<?> target = inferred instanceof Class<?> type ? type : NotificationRequest.class;
+        try {
+            return smileMapper.readValue(message.getBody(), target);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to read Smile body", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.vedvix.notification.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox spool in order once the broker is reachable again. Each batch is published
+ * and the read position only advances after every message in it was confirmed, so a failure
+ * mid-batch re-sends the batch on the next tick (at-least-once).
+ */
+@Component
+@ConditionalOnProperty(name = "notification.spool.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SpoolRelay {
+
+    private final OutboxSpool spool;
+    private final MessagingProducer producer;
+    private final int batchSize;
+    private final long confirmTimeoutMillis;
+
+    public SpoolRelay(OutboxSpool spool,
+                      MessagingProducer producer,
+                      @Value("${notification.spool.relay-batch-size:500}") int batchSize,
+                      @Value("${notification.spool.relay-confirm-timeout:30s}") Duration confirmTimeout) {
+        this.spool = spool;
+        this.producer = producer;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.spool.relay-interval:PT1S}")
+    public void relay() {
+        spool.sync();
+        if (!spool.isActive()) {
+            return;
+        }
+        long relayed = 0;
+        while (true) {
+            OutboxSpool.SpoolBatch batch = spool.read(batchSize);
+            if (batch.isEmpty()) {
+                if (spool.deactivateIfDrained()) {
+                    log.info("Outbox spool drained, resuming direct publishing");
+                }
+                break;
+            }
+            CompletableFuture<?>[] confirms = batch.requests().stream()
+                    .map(producer::publish)
+                    .toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(confirms).get(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Broker still unavailable, {} spooled notifications relayed this round", relayed);
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            spool.commit(batch);
+            relayed += batch.requests().size();
+        }
+        if (relayed > 0) {
+            log.info("Relayed {} spooled notifications", relayed);
+        }
+    }
+}
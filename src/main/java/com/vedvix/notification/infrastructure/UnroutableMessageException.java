@@ -0,0 +1,18 @@
+package com.vedvix.notification.infrastructure;
+
+import org.springframework.amqp.AmqpException;
+
+public class UnroutableMessageException extends AmqpException {
+    public UnroutableMessageException(String message) {
+        super(message);
+    }
+
+    public static boolean isCause(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnroutableMessageException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
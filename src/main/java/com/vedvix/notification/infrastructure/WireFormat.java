@@ -0,0 +1,22 @@
+package com.vedvix.notification.infrastructure;
+
+import org.springframework.amqp.core.MessageProperties;
+
+/**
+ * Body encodings for notification messages. Consumers pick the decoder from the content type, so
+ * producers on either format can run side by side during a rollout.
+ */
+public enum WireFormat {
+    JSON(MessageProperties.CONTENT_TYPE_JSON),
+    SMILE(SmileMessageConverter.CONTENT_TYPE);
+
+    private final String contentType;
+
+    WireFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,134 @@
+package com.vedvix.notification.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.infrastructure.MessagingProducer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves committed outbox rows to the exchange. Every relay thread claims a batch with
+ * {@code FOR UPDATE SKIP LOCKED}, publishes it, waits for the broker confirms and deletes the rows
+ * in the same transaction; a failed or timed-out batch rolls back and is picked up again.
+ * Relay threads on this and other instances never claim the same rows, so they scale out
+ * horizontally. Delivery is at-least-once.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.ingest.durability", havingValue = "outbox")
+@DependsOn("outboxWriter")
+@Slf4j
+public class OutboxRelay {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MessagingProducer producer;
+    private final int relayThreads;
+    private final int batchSize;
+    private final Duration interval;
+    private final long confirmTimeoutMillis;
+    private ScheduledExecutorService relays;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       MessagingProducer producer,
+                       @Value("${notification.outbox.relay-threads:2}") int relayThreads,
+                       @Value("${notification.outbox.relay-batch-size:1000}") int batchSize,
+                       @Value("${notification.outbox.relay-interval:PT0.2S}") Duration interval,
+                       @Value("${notification.outbox.relay-confirm-timeout:30s}") Duration confirmTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.producer = producer;
+        this.relayThreads = relayThreads;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        relays = Executors.newScheduledThreadPool(relayThreads, new CustomizableThreadFactory("notification-outbox-relay-"));
+        for (int i = 0; i < relayThreads; i++) {
+            relays.scheduleWithFixedDelay(this::relay, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        relays.shutdown();
+        relays.awaitTermination(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize && !relays.isShutdown());
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay round failed, batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxRow> rows = jdbcTemplate.query(
+                "SELECT id, payload FROM notification_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new OutboxRow(rs.getLong("id"), rs.getBytes("payload")),
+                batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        CompletableFuture<?>[] confirms = rows.stream()
+                .map(row -> producer.publish(decode(row.payload())))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(confirms).get(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Outbox batch of " + rows.size() + " was not confirmed by the broker", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for outbox confirms", e);
+        }
+        Long[] ids = rows.stream().map(OutboxRow::id).toArray(Long[]::new);
+        jdbcTemplate.update(con -> {
+            Array array = con.createArrayOf("bigint", ids);
+            var statement = con.prepareStatement("DELETE FROM notification_outbox WHERE id = ANY(?)");
+            statement.setArray(1, array);
+            return statement;
+        });
+        log.debug("Relayed {} outbox notifications", rows.size());
+        return rows.size();
+    }
+
+    private NotificationRequest decode(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, NotificationRequest.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize outbox notification", e);
+        }
+    }
+
+    private record OutboxRow(long id, byte[] payload) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.vedvix.notification.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.infrastructure.IngestQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox ingest: accepted requests are written to {@code notification_outbox} and
+ * their futures complete once the row is committed. Each drained batch is one multi-row insert
+ * in one transaction, so concurrent requests share a commit. {@link OutboxRelay} moves the rows
+ * to the broker.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.ingest.durability", havingValue = "outbox")
+@Slf4j
+public class OutboxWriter extends IngestQueue {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${notification.ingest.pipeline.capacity:10000}") int capacity,
+                        @Value("${notification.outbox.writer-threads:4}") int writerThreads,
+                        @Value("${notification.outbox.write-batch-size:500}") int batchSize) {
+        super("notification-outbox-writer", capacity, writerThreads, batchSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void start() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS notification_outbox (
+                    id BIGSERIAL PRIMARY KEY,
+                    notification_id VARCHAR(32) NOT NULL,
+                    payload BYTEA NOT NULL,
+                    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+                )""");
+        super.start();
+    }
+
+    @Override
+    protected void process(List<Pending> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        List<Pending> written = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            try {
+                rows.add(new Object[]{pending.request().getNotificationId(), objectMapper.writeValueAsBytes(pending.request())});
+                written.add(pending);
+            } catch (JsonProcessingException e) {
+                pending.future().completeExceptionally(new RuntimeException("Failed to serialize notification", e));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO notification_outbox (notification_id, payload) VALUES (?, ?)", rows));
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} notifications to the outbox", rows.size(), e);
+            written.forEach(pending -> pending.future().completeExceptionally(e));
+            return;
+        }
+        written.forEach(pending -> pending.future().complete(null));
+    }
+}
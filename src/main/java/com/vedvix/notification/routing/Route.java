@@ -0,0 +1,28 @@
+package com.vedvix.notification.routing;
+
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationPriority;
+
+/**
+ * A resolved destination. A partitioned route spreads over {@code partitions} queues named
+ * {@code <queue>.<n>}, and a user always hashes to the same one so their messages stay in order.
+ */
+public record Route(ChannelType channel, NotificationPriority lane, String exchange, String queue, String routingKey,
+                    int priority, String provider, int partitions) {
+
+    public boolean partitioned() {
+        return partitions > 1;
+    }
+
+    public String routingKey(String userId) {
+        return partitioned() ? partitionQueue(partition(userId)) : routingKey;
+    }
+
+    public int partition(String userId) {
+        return userId == null ? 0 : Math.floorMod(userId.hashCode(), partitions);
+    }
+
+    public String partitionQueue(int partition) {
+        return partitioned() ? queue + '.' + partition : queue;
+    }
+}
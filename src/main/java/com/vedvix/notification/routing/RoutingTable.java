@@ -0,0 +1,141 @@
+package com.vedvix.notification.routing;
+
+import com.vedvix.notification.config.RoutingConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationPriority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Per-project channel rules compiled once at startup into arrays indexed by channel and priority
+ * lane, so resolving a route is one map lookup and one array read. Every rule yields a low lane on
+ * its configured queue and a high lane on a separate queue, so bulk backlogs never sit in front of
+ * transactional traffic. Queues are bound to the exchange under their own name, which makes the
+ * routing key the queue. Partitioned channels are consumed one consumer per partition queue. Every
+ * instance subscribes to every partition and single active consumer lets one of them consume it,
+ * so when that instance dies the broker hands its partitions to the others.
+ */
+@Component
+@Slf4j
+public class RoutingTable {
+
+    private static final ChannelType[] CHANNELS = ChannelType.values();
+    private static final NotificationPriority[] LANES = NotificationPriority.values();
+
+    private final Route[] defaults;
+    private final Map<String, Route[]> byProject;
+    private final List<Route> allRoutes = new ArrayList<>();
+
+    public static final String PARTITIONED_CONTAINER_FACTORY = "partitionedListenerContainerFactory";
+    public static final String DEFAULT_CONTAINER_FACTORY = "rabbitListenerContainerFactory";
+
+    private final String highSuffix;
+    private final Map<ChannelType, Integer> partitions;
+
+    public RoutingTable(RoutingConfig config) {
+        this.highSuffix = config.getHighPriorityQueueSuffix();
+        this.partitions = config.getPartitions();
+        this.defaults = compile(config.getExchange(), config.getDefaults(), null, "defaults");
+        this.byProject = new HashMap<>();
+        config.getProjects().forEach((projectId, rules) ->
+                byProject.put(projectId, compile(config.getExchange(), rules, defaults, projectId)));
+        log.info("Compiled routing table: {} default routes, {} project overrides", defaults.length, byProject.size());
+    }
+
+    public Route route(String projectId, ChannelType channel) {
+        return route(projectId, channel, NotificationPriority.LOW);
+    }
+
+    public Route route(String projectId, ChannelType channel, NotificationPriority priority) {
+        Route[] routes = projectId == null ? defaults : byProject.getOrDefault(projectId, defaults);
+        NotificationPriority lane = priority == null ? NotificationPriority.LOW : priority;
+        return routes[index(channel, lane)];
+    }
+
+    public Collection<Route> routes() {
+        return allRoutes;
+    }
+
+    /**
+     * Every distinct queue of a channel's lane, partitions included, for the channel worker's listener.
+     */
+    public String[] queues(ChannelType channel, NotificationPriority lane) {
+        return allRoutes.stream()
+                .filter(route -> route.channel() == channel && route.lane() == lane)
+                .map(Route::queue)
+                .distinct()
+                .flatMap(queue -> {
+                    int count = partitions.getOrDefault(channel, 1);
+                    if (count <= 1) {
+                        return Stream.of(queue);
+                    }
+                    return IntStream.range(0, count).mapToObj(partition -> queue + '.' + partition);
+                })
+                .toArray(String[]::new);
+    }
+
+    public boolean isPartitioned(ChannelType channel) {
+        return partitions.getOrDefault(channel, 1) > 1;
+    }
+
+    /**
+     * Partitioned channels need exactly one consumer per queue to keep per-user order, which the
+     * direct container gives; the rest keep the shared simple container.
+     */
+    public String containerFactory(ChannelType channel) {
+        return isPartitioned(channel) ? PARTITIONED_CONTAINER_FACTORY : DEFAULT_CONTAINER_FACTORY;
+    }
+
+    public String concurrency(ChannelType channel, String configured) {
+        return isPartitioned(channel) ? "1" : configured;
+    }
+
+    /**
+     * Highest priority routed to each queue, for declaring {@code x-max-priority}.
+     */
+    public Map<String, Integer> maxPriorityByQueue() {
+        Map<String, Integer> priorities = new LinkedHashMap<>();
+        allRoutes.forEach(route -> priorities.merge(route.queue(), route.priority(), Math::max));
+        return priorities;
+    }
+
+    private Route[] compile(String exchange, Map<ChannelType, RoutingConfig.RouteRule> rules, Route[] fallback, String owner) {
+        Route[] routes = new Route[CHANNELS.length * LANES.length];
+        for (ChannelType channel : CHANNELS) {
+            RoutingConfig.RouteRule rule = rules.get(channel);
+            if (rule == null) {
+                if (fallback == null) {
+                    throw new IllegalStateException("No default route configured for channel " + channel);
+                }
+                for (NotificationPriority lane : LANES) {
+                    routes[index(channel, lane)] = fallback[index(channel, lane)];
+                }
+                continue;
+            }
+            if (rule.getQueue() == null || rule.getQueue().isBlank()) {
+                throw new IllegalStateException("Route for " + channel + " in " + owner + " has no queue");
+            }
+            for (NotificationPriority lane : LANES) {
+                String queue = lane == NotificationPriority.HIGH ? rule.getQueue() + highSuffix : rule.getQueue();
+                Route route = new Route(channel, lane, exchange, queue, queue, rule.getPriority(), rule.getProvider(),
+                        partitions.getOrDefault(channel, 1));
+                routes[index(channel, lane)] = route;
+                allRoutes.add(route);
+            }
+        }
+        return routes;
+    }
+
+    private static int index(ChannelType channel, NotificationPriority lane) {
+        return channel.ordinal() * LANES.length + lane.ordinal();
+    }
+}
@@ -0,0 +1,168 @@
+package com.vedvix.notification.schedule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.NotificationRequest;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "notification.schedule.mode", havingValue = "wheel")
+public class JdbcScheduledNotificationStore implements ScheduledNotificationStore {
+
+    // Free, lease expired, or already held by the owner passed as the statement's parameter
+    private static final String CLAIMABLE = "(claimed_until IS NULL OR claimed_until < now() OR claimed_by = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int recoveryPageSize;
+
+    public JdbcScheduledNotificationStore(JdbcTemplate jdbcTemplate,
+                                          ObjectMapper objectMapper,
+                                          @Value("${notification.schedule.wheel.recovery-page-size:10000}") int recoveryPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.recoveryPageSize = recoveryPageSize;
+    }
+
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS notification_schedule (
+                    notification_id VARCHAR(32) PRIMARY KEY,
+                    deliver_at TIMESTAMPTZ NOT NULL,
+                    payload BYTEA NOT NULL
+                )""");
+        jdbcTemplate.execute("ALTER TABLE notification_schedule ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(64)");
+        jdbcTemplate.execute("ALTER TABLE notification_schedule ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ");
+        // Matches the recovery pages' order, so each page is a range scan that starts where the last one ended
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS notification_schedule_due ON notification_schedule (deliver_at, notification_id)");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS notification_schedule_deliver_at");
+    }
+
+    @Override
+    public void save(NotificationRequest request, Instant deliverAt) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize notification", e);
+        }
+        jdbcTemplate.update("INSERT INTO notification_schedule (notification_id, deliver_at, payload) VALUES (?, ?, ?)",
+                request.getNotificationId(), Timestamp.from(deliverAt), payload);
+    }
+
+    @Override
+    public boolean delete(String notificationId, String owner) {
+        return jdbcTemplate.update("DELETE FROM notification_schedule WHERE notification_id = ? AND " + CLAIMABLE,
+                notificationId, owner) > 0;
+    }
+
+    @Override
+    public void deleteAll(Collection<String> notificationIds) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement statement = con.prepareStatement("DELETE FROM notification_schedule WHERE notification_id = ANY(?)");
+            statement.setArray(1, idArray(con, notificationIds));
+            return statement;
+        });
+    }
+
+    // SKIP LOCKED leaves rows another instance is claiming right now to that instance
+    @Override
+    public List<NotificationRequest> claim(Collection<String> notificationIds, String owner, Duration lease) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement("""
+                    WITH claimable AS (
+                        SELECT notification_id FROM notification_schedule
+                        WHERE notification_id = ANY(?) AND %s
+                        FOR UPDATE SKIP LOCKED
+                    )
+                    UPDATE notification_schedule s
+                    SET claimed_by = ?, claimed_until = now() + ? * INTERVAL '1 millisecond'
+                    FROM claimable c
+                    WHERE s.notification_id = c.notification_id
+                    RETURNING s.payload""".formatted(CLAIMABLE));
+            statement.setArray(1, idArray(con, notificationIds));
+            statement.setString(2, owner);
+            statement.setString(3, owner);
+            statement.setLong(4, lease.toMillis());
+            return statement;
+        }, (rs, rowNum) -> decode(rs.getBytes("payload")));
+    }
+
+    @Override
+    public void forEachPending(PendingConsumer consumer) {
+        forEachUnclaimed(null, consumer);
+    }
+
+    @Override
+    public void forEachDue(Instant before, PendingConsumer consumer) {
+        forEachUnclaimed(before, consumer);
+    }
+
+    // Keyset pages on (deliver_at, notification_id) rather than one cursor, so recovery needs no
+    // long-running transaction. The key is the timestamp as read, keeping the column's microseconds.
+    private void forEachUnclaimed(Instant before, PendingConsumer consumer) {
+        String sql = """
+                SELECT notification_id, deliver_at FROM notification_schedule
+                WHERE %s(claimed_until IS NULL OR claimed_until < now())%s
+                ORDER BY deliver_at, notification_id LIMIT ?""";
+        String due = before == null ? "" : " AND deliver_at < ?";
+        String firstPage = sql.formatted("", due);
+        String nextPage = sql.formatted("(deliver_at, notification_id) > (?, ?) AND ", due);
+        Timestamp afterDeliverAt = null;
+        String afterId = null;
+        while (true) {
+            List<Object> args = new ArrayList<>();
+            if (afterId != null) {
+                args.add(afterDeliverAt);
+                args.add(afterId);
+            }
+            if (before != null) {
+                args.add(Timestamp.from(before));
+            }
+            args.add(recoveryPageSize);
+            Timestamp[] lastDeliverAt = {null};
+            String[] lastId = {null};
+            jdbcTemplate.query(afterId == null ? firstPage : nextPage,
+                    rs -> {
+                        lastId[0] = rs.getString("notification_id");
+                        lastDeliverAt[0] = rs.getTimestamp("deliver_at");
+                        consumer.accept(lastId[0], lastDeliverAt[0].getTime());
+                    },
+                    args.toArray());
+            if (lastId[0] == null) {
+                return;
+            }
+            afterDeliverAt = lastDeliverAt[0];
+            afterId = lastId[0];
+        }
+    }
+
+    private static Array idArray(Connection con, Collection<String> notificationIds) throws SQLException {
+        return con.createArrayOf("varchar", notificationIds.toArray());
+    }
+
+    private NotificationRequest decode(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, NotificationRequest.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize scheduled notification", e);
+        }
+    }
+}
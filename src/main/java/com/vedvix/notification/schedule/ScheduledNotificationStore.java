@@ -0,0 +1,48 @@
+package com.vedvix.notification.schedule;
+
+import com.vedvix.notification.dto.NotificationRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable copy of everything in the timing wheel. The wheel itself only holds ids and deadlines;
+ * payloads are claimed here when their timers fire. Every instance may hold a timer for the same
+ * row, and the claim decides which one publishes it: a claim is a lease, and rows under another
+ * owner's live lease are neither claimed, deleted nor listed.
+ */
+public interface ScheduledNotificationStore {
+
+    void save(NotificationRequest request, Instant deliverAt);
+
+    /**
+     * Deletes the row unless another owner holds a live claim on it.
+     */
+    boolean delete(String notificationId, String owner);
+
+    void deleteAll(Collection<String> notificationIds);
+
+    /**
+     * Claims the given rows for {@code owner} for {@code lease}, skipping rows another owner holds,
+     * and returns the payloads of the rows claimed.
+     */
+    List<NotificationRequest> claim(Collection<String> notificationIds, String owner, Duration lease);
+
+    /**
+     * Streams the id and due time of every unclaimed notification, for rebuilding the wheel on startup.
+     */
+    void forEachPending(PendingConsumer consumer);
+
+    /**
+     * Streams the unclaimed notifications due before {@code before}, which picks up rows scheduled
+     * on other instances and rows whose owner died holding the claim.
+     */
+    void forEachDue(Instant before, PendingConsumer consumer);
+
+    @FunctionalInterface
+    interface PendingConsumer {
+        void accept(String notificationId, long deliverAtMillis);
+    }
+}
@@ -0,0 +1,156 @@
+package com.vedvix.notification.schedule;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level {@code n} has 64 slots, each spanning {@code 64^n} ticks, so
+ * five levels cover 64^5 ticks (about 34 years at one second per tick). Slots are intrusive
+ * doubly linked lists: adding and cancelling a timer are O(1), and each tick fires its slot and,
+ * every 64 ticks, cascades one slot of the next level down. A timer cascades at most once per
+ * level, so firing is amortised O(1) per timer as well.
+ * <p>
+ * Not thread-safe; callers serialise access.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+
+    private final long tickMillis;
+    private final Timer<T>[][] wheels;
+    // Timers added with a deadline at or before the current tick, fired on the next advance
+    private final Timer<T> overdue = sentinel();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Timer[LEVELS][SLOTS];
+        for (Timer<T>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = sentinel();
+            }
+        }
+    }
+
+    public Timer<T> add(long deadlineMillis, T value) {
+        // Rounded up, so a timer never fires before its deadline
+        Timer<T> timer = new Timer<>(value, -Math.floorDiv(-deadlineMillis, tickMillis));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return false when the timer already fired or was cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.prev == null) {
+            return false;
+        }
+        timer.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis}, handing every timer that became due to {@code onExpire}.
+     */
+    public void advanceTo(long nowMillis, Consumer<T> onExpire) {
+        fire(overdue, onExpire);
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            fire(wheels[0][(int) (currentTick & SLOT_MASK)], onExpire);
+            // Cascaded timers due on this very tick land here
+            fire(overdue, onExpire);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.append(timer);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long tick = Math.min(timer.deadlineTick, currentTick + (1L << (SLOT_BITS * LEVELS)) - 1);
+        wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].append(timer);
+    }
+
+    // Each time a level wraps, the next level's current slot is redistributed into the levels below
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if (((currentTick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) != 0) {
+                return;
+            }
+            Timer<T> head = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            Timer<T> timer = head.next;
+            head.next = head;
+            head.prev = head;
+            while (timer != head) {
+                Timer<T> next = timer.next;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void fire(Timer<T> head, Consumer<T> onExpire) {
+        while (head.next != head) {
+            Timer<T> timer = head.next;
+            timer.unlink();
+            size--;
+            onExpire.accept(timer.value);
+        }
+    }
+
+    private static <T> Timer<T> sentinel() {
+        Timer<T> head = new Timer<>(null, 0);
+        head.prev = head;
+        head.next = head;
+        return head;
+    }
+
+    public static final class Timer<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        private void append(Timer<T> timer) {
+            timer.prev = prev;
+            timer.next = this;
+            prev.next = timer;
+            prev = timer;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.vedvix.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.infrastructure.LingerBatcher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sesv2.SesV2AsyncClient;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailContent;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailEntry;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailEntryResult;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailStatus;
+import software.amazon.awssdk.services.sesv2.model.Destination;
+import software.amazon.awssdk.services.sesv2.model.ReplacementEmailContent;
+import software.amazon.awssdk.services.sesv2.model.ReplacementTemplate;
+import software.amazon.awssdk.services.sesv2.model.SendBulkEmailRequest;
+import software.amazon.awssdk.services.sesv2.model.Template;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Groups emails per SES template for up to {@code linger} and sends each group with one
+ * {@code SendBulkEmail} call of at most {@code batch-size} (SES allows 50) destinations. At most
+ * {@code max-in-flight} full bulk calls' worth of emails are outstanding. Senders take their
+ * permit before an email is batched, so they block while the window is full and the shared
+ * flusher never waits on SES. Each email's future completes from its own entry of the bulk
+ * response.
+ */
+@Service
+@Slf4j
+public class EmailService {
+
+    public static final int MAX_DESTINATIONS = 50;
+
+    private final SesV2AsyncClient sesClient;
+    private final ObjectMapper objectMapper;
+    private final String fromAddress;
+    private final Semaphore inFlight;
+    private final LingerBatcher<String, PendingEmail> batcher;
+
+    public EmailService(SesV2AsyncClient sesClient, ObjectMapper objectMapper,
+                        @Value("${notification.email.from-address:no-reply@vedvix.com}") String fromAddress,
+                        @Value("${notification.email.batch.size:50}") int batchSize,
+                        @Value("${notification.email.batch.linger:50ms}") Duration linger,
+                        @Value("${notification.email.max-in-flight:16}") int maxInFlight) {
+        this.sesClient = sesClient;
+        this.objectMapper = objectMapper;
+        this.fromAddress = fromAddress;
+        int destinations = Math.min(batchSize, MAX_DESTINATIONS);
+        // One permit per email, released when that email's result comes back
+        this.inFlight = new Semaphore(maxInFlight * destinations);
+        this.batcher = new LingerBatcher<>("ses-batch", destinations, linger, this::dispatch);
+    }
+
+    public CompletableFuture<String> sendTemplated(String template, String toAddress, Map<String, String> templateData) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        BulkEmailEntry entry;
+        try {
+            entry = BulkEmailEntry.builder()
+                    .destination(Destination.builder().toAddresses(toAddress).build())
+                    .replacementEmailContent(ReplacementEmailContent.builder()
+                            .replacementTemplate(ReplacementTemplate.builder()
+                                    .replacementTemplateData(objectMapper.writeValueAsString(templateData == null ? Map.of() : templateData))
+                                    .build())
+                            .build())
+                    .build();
+        } catch (JsonProcessingException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete((messageId, ex) -> inFlight.release());
+        batcher.add(template, new PendingEmail(entry, future));
+        return future;
+    }
+
+    private void dispatch(String template, List<PendingEmail> batch) {
+        SendBulkEmailRequest request = SendBulkEmailRequest.builder()
+                .fromEmailAddress(fromAddress)
+                .defaultContent(BulkEmailContent.builder()
+                        .template(Template.builder().templateName(template).templateData("{}").build())
+                        .build())
+                .bulkEmailEntries(batch.stream().map(PendingEmail::entry).toList())
+                .build();
+        try {
+            sesClient.sendBulkEmail(request).whenComplete((response, ex) -> {
+                if (ex != null) {
+                    log.error("Failed to send bulk email of {} with template {}", batch.size(), template, ex);
+                    batch.forEach(email -> email.future().completeExceptionally(ex));
+                    return;
+                }
+                List<BulkEmailEntryResult> results = response.bulkEmailEntryResults();
+                for (int i = 0; i < batch.size(); i++) {
+                    BulkEmailEntryResult result = results.get(i);
+                    if (result.status() == BulkEmailStatus.SUCCESS) {
+                        batch.get(i).future().complete(result.messageId());
+                    } else {
+                        batch.get(i).future().completeExceptionally(
+                                new IllegalStateException("SES rejected email: " + result.status() + " " + result.error()));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to send bulk email of {} with template {}", batch.size(), template, e);
+            batch.forEach(email -> email.future().completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        batcher.close();
+    }
+
+    private record PendingEmail(BulkEmailEntry entry, CompletableFuture<String> future) {
+    }
+}
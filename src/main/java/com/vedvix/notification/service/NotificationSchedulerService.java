@@ -0,0 +1,16 @@
+package com.vedvix.notification.service;
+
+import com.vedvix.notification.dto.NotificationReceipt;
+import com.vedvix.notification.dto.NotificationRequest;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+public interface NotificationSchedulerService {
+    CompletableFuture<NotificationReceipt> schedule(NotificationRequest request, Instant deliverAt);
+
+    /**
+     * @return false when no pending notification has this id
+     */
+    boolean cancel(String notificationId);
+}
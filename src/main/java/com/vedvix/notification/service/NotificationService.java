@@ -1,7 +1,29 @@
 package com.vedvix.notification.service;
 
+import com.vedvix.notification.dto.NotificationReceipt;
 import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface NotificationService {
-    void sendNotification(NotificationRequest request);
-}
\ No newline at end of file
+    CompletableFuture<NotificationReceipt> sendNotification(NotificationRequest request, String idempotencyKey);
+
+    CompletableFuture<List<NotificationResult>> sendNotifications(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout);
+
+    /**
+     * Like {@link #sendNotifications}, but stops at the first request that still finds the publish
+     * pipeline full after {@code admissionTimeout}, instead of rejecting it and trying the rest.
+     * Requests from {@link BatchAdmission#admitted()} on were not handed off and have no result.
+     */
+    BatchAdmission admitNotifications(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout);
+
+    /**
+     * How many leading requests were handed off or rejected, and their results, which complete
+     * as they are confirmed.
+     */
+    record BatchAdmission(int admitted, CompletableFuture<List<NotificationResult>> results) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.vedvix.notification.service;
+
+import com.vedvix.notification.dto.StreamIngestResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface NotificationStreamService {
+    StreamIngestResponse ingest(InputStream ndjson) throws IOException;
+}
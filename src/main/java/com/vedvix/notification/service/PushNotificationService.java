@@ -1,14 +1,47 @@
 package com.vedvix.notification.service;
 
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import com.vedvix.notification.infrastructure.LingerBatcher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Collects FCM messages for up to {@code linger} and sends them with one {@code sendEach} call of
+ * at most {@code batch-size} (FCM's limit is 500) messages. Each message's future completes with
+ * its own message id, or fails with its own error, from the matching entry of the batch response.
+ */
 @Service
+@Slf4j
 public class PushNotificationService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+
+    // Every message goes into the same sendEach call, whatever its target
+    private static final String ALL = "fcm";
+
+    private final LingerBatcher<String, PendingPush> batcher;
+
+    public PushNotificationService(@Value("${notification.push.batch.size:500}") int batchSize,
+                                   @Value("${notification.push.batch.linger:20ms}") Duration linger) {
+        this.batcher = new LingerBatcher<>("fcm-batch", Math.min(batchSize, MAX_BATCH_SIZE), linger,
+                (key, batch) -> dispatch(batch));
+    }
+
     public String sendPushNotification(String deviceToken, String title, String body) throws FirebaseMessagingException {
         Notification notification = Notification.builder()
                 .setTitle(title)
@@ -20,6 +53,68 @@ public class PushNotificationService {
                 .setNotification(notification)
                 .build();
 
-        return FirebaseMessaging.getInstance().send(message);
+        try {
+            return send(message).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof FirebaseMessagingException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<String> send(Message message) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        batcher.add(ALL, new PendingPush(message, future));
+        return future;
+    }
+
+    private void dispatch(List<PendingPush> batch) {
+        try {
+            List<Message> messages = batch.stream().map(PendingPush::message).toList();
+            toCompletable(FirebaseMessaging.getInstance().sendEachAsync(messages)).whenComplete((response, ex) -> {
+                if (ex != null) {
+                    batch.forEach(push -> push.future().completeExceptionally(ex));
+                    return;
+                }
+                List<SendResponse> responses = response.getResponses();
+                for (int i = 0; i < batch.size(); i++) {
+                    SendResponse result = responses.get(i);
+                    if (result.isSuccessful()) {
+                        batch.get(i).future().complete(result.getMessageId());
+                    } else {
+                        batch.get(i).future().completeExceptionally(result.getException());
+                    }
+                }
+                log.debug("Sent FCM batch of {}: {} succeeded, {} failed", batch.size(), response.getSuccessCount(), response.getFailureCount());
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to send FCM batch of {} messages", batch.size(), e);
+            batch.forEach(push -> push.future().completeExceptionally(e));
+        }
+    }
+
+    private static <T> CompletableFuture<T> toCompletable(ApiFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    @PreDestroy
+    public void stop() {
+        batcher.close();
+    }
+
+    private record PendingPush(Message message, CompletableFuture<String> future) {
     }
 }
@@ -1,21 +1,60 @@
 package com.vedvix.notification.service;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.vedvix.notification.config.TwilioConfig;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends SMS with the Twilio SDK's async API. Each account allows at most {@code twilio.maxInFlight}
+ * sends at once; callers block in {@link #sendSms} while the window is full, which holds back
+ * the listener consumers instead of queueing unbounded work on the SDK executor.
+ */
 @Service
 @RequiredArgsConstructor
 public class SmsService {
     private final TwilioConfig twilioConfig;
+    private final Map<String, Semaphore> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<Message> sendSms(String to, String message) {
+        Semaphore window = inFlight.computeIfAbsent(twilioConfig.getAccountSid(), account -> new Semaphore(twilioConfig.getMaxInFlight()));
+        CompletableFuture<Message> result = new CompletableFuture<>();
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete((sent, ex) -> window.release());
+        try {
+            Futures.addCallback(Message.creator(
+                    new PhoneNumber(to),
+                    new PhoneNumber(twilioConfig.getFromNumber()),
+                    message
+            ).createAsync(), new FutureCallback<>() {
+                @Override
+                public void onSuccess(Message sent) {
+                    result.complete(sent);
+                }
 
-    public void sendSms(String to, String message) {
-        Message.creator(
-                new PhoneNumber(to),
-                new PhoneNumber(twilioConfig.getFromNumber()),
-                message
-        ).create();
+                @Override
+                public void onFailure(Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            }, MoreExecutors.directExecutor());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
     }
 }
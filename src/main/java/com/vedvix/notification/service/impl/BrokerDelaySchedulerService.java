@@ -0,0 +1,44 @@
+package com.vedvix.notification.service.impl;
+
+import com.vedvix.notification.dto.NotificationReceipt;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationStatus;
+import com.vedvix.notification.exception.NotificationPublishException;
+import com.vedvix.notification.exception.ScheduleCancellationUnsupportedException;
+import com.vedvix.notification.infrastructure.DelayLadder;
+import com.vedvix.notification.infrastructure.NotificationIdGenerator;
+import com.vedvix.notification.service.NotificationSchedulerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@ConditionalOnExpression("'${notification.schedule.mode:broker}' == 'broker' and '${notification.transport:amqp}' == 'amqp'")
+@RequiredArgsConstructor
+@Slf4j
+public class BrokerDelaySchedulerService implements NotificationSchedulerService {
+
+    private final DelayLadder delayLadder;
+    private final NotificationIdGenerator idGenerator;
+
+    @Override
+    public CompletableFuture<NotificationReceipt> schedule(NotificationRequest request, Instant deliverAt) {
+        request.setNotificationId(idGenerator.nextId());
+        log.info("Scheduling notification {} for user {} at {}", request.getNotificationId(), request.getUserId(), deliverAt);
+        return delayLadder.park(request, deliverAt.toEpochMilli()).handle((ignored, ex) -> {
+            if (ex != null) {
+                throw new NotificationPublishException("Notification " + request.getNotificationId() + " was not confirmed by the broker", ex);
+            }
+            return new NotificationReceipt(request.getNotificationId(), NotificationStatus.ACCEPTED);
+        });
+    }
+
+    @Override
+    public boolean cancel(String notificationId) {
+        throw new ScheduleCancellationUnsupportedException("Notifications parked in broker delay queues cannot be cancelled");
+    }
+}
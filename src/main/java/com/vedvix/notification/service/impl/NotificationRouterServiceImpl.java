@@ -1,22 +1,25 @@
 package com.vedvix.notification.service.impl;
 
-import com.vedvix.notification.dto.ChannelType;
 import com.vedvix.notification.dto.NotificationRequest;
 import com.vedvix.notification.infrastructure.MessagingProducer;
 import com.vedvix.notification.service.NotificationRouterService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class NotificationRouterServiceImpl implements NotificationRouterService {
 
     private final MessagingProducer producer;
 
     @Override
     public void routeNotification(NotificationRequest request) {
-        for (ChannelType channel : request.getChannels()) {
-            producer.publishToQueue(channel, request);
-        }
+        producer.publish(request).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                log.error("Failed to route notification {}", request.getNotificationId(), ex);
+            }
+        });
     }
-}
\ No newline at end of file
+}
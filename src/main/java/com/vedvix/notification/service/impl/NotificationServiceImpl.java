@@ -1,27 +1,149 @@
 package com.vedvix.notification.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.NotificationReceipt;
 import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationResult;
+import com.vedvix.notification.dto.NotificationStatus;
+import com.vedvix.notification.exception.IngestCapacityExceededException;
+import com.vedvix.notification.exception.NotificationPublishException;
+import com.vedvix.notification.idempotency.IdempotencyKeyResolver;
+import com.vedvix.notification.idempotency.IdempotencyStore;
+import com.vedvix.notification.infrastructure.NotificationIdGenerator;
+import com.vedvix.notification.infrastructure.IngestQueue;
 import com.vedvix.notification.service.NotificationService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    private final IngestQueue ingestQueue;
+    private final NotificationIdGenerator idGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyKeyResolver idempotencyKeyResolver;
+    private final Validator validator;
+
+    // When set, ingest answers only once the request is durable (broker confirm or outbox commit) instead of on enqueue
+    @Value("${notification.ingest.await-confirms:true}")
+    private boolean awaitConfirms;
 
     @Override
-    public void sendNotification(NotificationRequest request) {
-        request.getChannels().forEach(channel -> {
-            String routingKey = "notification_" + channel.name().toLowerCase();
-            rabbitTemplate.convertAndSend("", routingKey, request);
-            log.info("Published to routingKey: {}, user: {}", routingKey, request.getUserId());
+    public CompletableFuture<NotificationReceipt> sendNotification(NotificationRequest request, String idempotencyKey) {
+        Admission admission = accept(0, request, idempotencyKeyResolver.resolve(request, idempotencyKey), Duration.ZERO);
+        NotificationResult result = admission.result();
+        if (result.getStatus() == NotificationStatus.REJECTED) {
+            throw new IngestCapacityExceededException("Publish pipeline is full, retry later");
+        }
+        log.info("{} notification {} for user: {}", result.getStatus(), result.getNotificationId(), request.getUserId());
+        NotificationReceipt receipt = new NotificationReceipt(result.getNotificationId(), result.getStatus());
+        if (!awaitConfirms || admission.published() == null) {
+            return CompletableFuture.completedFuture(receipt);
+        }
+        return admission.published().handle((ignored, ex) -> {
+            if (ex != null) {
+                throw new NotificationPublishException("Notification " + receipt.getNotificationId() + " was not confirmed by the broker", ex);
+            }
+            return receipt;
         });
     }
-}
\ No newline at end of file
+
+    @Override
+    public CompletableFuture<List<NotificationResult>> sendNotifications(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout) {
+        return admit(requests, idempotencyKey, admissionTimeout, false).results();
+    }
+
+    @Override
+    public BatchAdmission admitNotifications(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout) {
+        return admit(requests, idempotencyKey, admissionTimeout, true);
+    }
+
+    private BatchAdmission admit(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout, boolean stopWhenFull) {
+        List<NotificationResult> results = new ArrayList<>(requests.size());
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        int accepted = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            NotificationRequest request = requests.get(i);
+            List<String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results.add(NotificationResult.rejected(i, errors));
+                continue;
+            }
+            String itemKey = idempotencyKeyResolver.resolve(request, idempotencyKey == null ? null : idempotencyKey + ":" + i);
+            Admission admission = accept(i, request, itemKey, admissionTimeout);
+            NotificationResult result = admission.result();
+            if (stopWhenFull && admission.full()) {
+                break;
+            }
+            results.add(result);
+            if (result.getStatus() == NotificationStatus.ACCEPTED) {
+                accepted++;
+            }
+            if (awaitConfirms && admission.published() != null) {
+                confirms.add(admission.published().handle((ignored, ex) -> {
+                    if (ex != null) {
+                        result.setStatus(NotificationStatus.REJECTED);
+                        result.setErrors(List.of("not confirmed by the broker: " + ex.getMessage()));
+                    }
+                    return null;
+                }));
+            }
+        }
+        log.info("Accepted batch of {} notifications ({} not accepted)", accepted, requests.size() - accepted);
+        return new BatchAdmission(results.size(), CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).thenApply(ignored -> results));
+    }
+
+    private Admission accept(int index, NotificationRequest request, String key, Duration admissionTimeout) {
+        String notificationId = idGenerator.nextId();
+        if (key != null) {
+            String original = idempotencyStore.putIfAbsent(key, notificationId);
+            if (original != null) {
+                return new Admission(NotificationResult.duplicate(index, original), null, false);
+            }
+        }
+        request.setNotificationId(notificationId);
+        CompletableFuture<Void> published = ingestQueue.submit(request, admissionTimeout);
+        if (published == null) {
+            if (key != null) {
+                idempotencyStore.remove(key, notificationId);
+            }
+            return new Admission(NotificationResult.rejected(index, List.of("publish pipeline is full, retry later")), null, true);
+        }
+        published.whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                log.error("Notification {} was not published", notificationId, ex);
+                if (key != null) {
+                    // Let the client's retry through, since nothing reached the broker
+                    idempotencyStore.remove(key, notificationId);
+                }
+            }
+        });
+        return new Admission(NotificationResult.accepted(index, notificationId), published, false);
+    }
+
+    private List<String> validate(NotificationRequest request) {
+        if (request == null) {
+            return List.of("request must not be null");
+        }
+        Set<ConstraintViolation<NotificationRequest>> violations = validator.validate(request);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<NotificationRequest> violation : violations) {
+            errors.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private record Admission(NotificationResult result, CompletableFuture<Void> published, boolean full) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.vedvix.notification.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationResult;
+import com.vedvix.notification.dto.NotificationStatus;
+import com.vedvix.notification.dto.StreamIngestResponse;
+import com.vedvix.notification.service.NotificationService;
+import com.vedvix.notification.service.NotificationStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@Slf4j
+public class NotificationStreamServiceImpl implements NotificationStreamService {
+
+    private final NotificationService notificationService;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+    private final Duration admissionTimeout;
+    private final int maxLineLength;
+
+    public NotificationStreamServiceImpl(NotificationService notificationService,
+                                         ObjectMapper objectMapper,
+                                         @Value("${notification.ingest.stream.chunk-size:200}") int chunkSize,
+                                         @Value("${notification.ingest.stream.max-reported-rejections:100}") int maxReportedRejections,
+                                         @Value("${notification.ingest.stream.admission-timeout:30s}") Duration admissionTimeout,
+                                         @Value("${notification.ingest.stream.max-line-length:65536}") int maxLineLength) {
+        this.notificationService = notificationService;
+        this.requestReader = objectMapper.readerFor(NotificationRequest.class);
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+        this.admissionTimeout = admissionTimeout;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Parses one request per line and hands every {@code chunkSize} lines to the publish pipeline,
+     * waiting for pipeline capacity when it is full. Nothing more is read from the socket while
+     * waiting, so a slow broker or lagging publisher confirms throttle the client through TCP flow
+     * control. Chunks in flight are bounded by the pipeline and the confirm window, and the
+     * response is written once every accepted line has been confirmed.
+     * <p>
+     * If the pipeline is still full after {@code admissionTimeout}, reading stops there and the
+     * response reports what happened to every line up to {@code lastLine}, so the client can resend
+     * the rest. Lines longer than {@code max-line-length} are rejected without being buffered.
+     */
+    @Override
+    public StreamIngestResponse ingest(InputStream ndjson) throws IOException {
+        Tally tally = new Tally();
+        CompletableFuture<Void> allSettled = CompletableFuture.completedFuture(null);
+        Chunk chunk = new Chunk(chunkSize);
+        boolean complete = true;
+
+        try (Reader reader = new InputStreamReader(ndjson, StandardCharsets.UTF_8)) {
+            LineReader lines = new LineReader(reader, maxLineLength);
+            int lineNumber = 0;
+            while (lines.next()) {
+                lineNumber++;
+                if (lines.tooLong()) {
+                    chunk.reject(lineNumber, "line is longer than " + maxLineLength + " characters");
+                } else if (!lines.line().isBlank()) {
+                    try {
+                        chunk.add(lineNumber, requestReader.readValue(lines.line()));
+                    } catch (JsonProcessingException e) {
+                        chunk.reject(lineNumber, "malformed JSON: " + e.getOriginalMessage());
+                    }
+                }
+                chunk.end = lineNumber;
+                if (chunk.size() == chunkSize) {
+                    CompletableFuture<Void> settled = publish(chunk, tally);
+                    allSettled = CompletableFuture.allOf(allSettled, settled);
+                    if (!chunk.handedOff) {
+                        complete = false;
+                        break;
+                    }
+                    chunk = new Chunk(chunkSize);
+                    chunk.end = lineNumber;
+                }
+            }
+            if (complete) {
+                allSettled = CompletableFuture.allOf(allSettled, publish(chunk, tally));
+                complete = chunk.handedOff;
+            }
+        }
+        allSettled.join();
+        synchronized (tally) {
+            log.info("Stream ingest {}: received {}, accepted {}, duplicates {}, rejected {}, last line {}",
+                    complete ? "finished" : "stopped on a full pipeline", tally.received, tally.accepted, tally.duplicates, tally.rejected, tally.lastLine);
+            return new StreamIngestResponse(tally.received, tally.accepted, tally.duplicates, tally.rejected, tally.rejections,
+                    complete, tally.lastLine);
+        }
+    }
+
+    /**
+     * Hands the chunk's requests to the pipeline and records its unparseable lines. When the
+     * pipeline stays full, only the lines before the first request it didn't take are counted.
+     */
+    private CompletableFuture<Void> publish(Chunk chunk, Tally tally) {
+        int admitted = 0;
+        CompletableFuture<Void> settled = CompletableFuture.completedFuture(null);
+        if (!chunk.requests.isEmpty()) {
+            NotificationService.BatchAdmission admission = notificationService.admitNotifications(chunk.requests, null, admissionTimeout);
+            admitted = admission.admitted();
+            List<Integer> requestLines = chunk.requestLines;
+            settled = admission.results().thenAccept(results -> {
+                for (NotificationResult result : results) {
+                    if (result.getStatus() == NotificationStatus.REJECTED) {
+                        result.setIndex(requestLines.get(result.getIndex()));
+                    }
+                    tally.record(result);
+                }
+            });
+        }
+        chunk.handedOff = admitted == chunk.requests.size();
+        int lastLine = chunk.handedOff ? chunk.end : chunk.requestLines.get(admitted) - 1;
+        synchronized (tally) {
+            tally.received += admitted;
+            for (NotificationResult rejection : chunk.rejections) {
+                if (rejection.getIndex() <= lastLine) {
+                    tally.received++;
+                    tally.record(rejection);
+                }
+            }
+            tally.lastLine = lastLine;
+        }
+        return settled;
+    }
+
+    // Lines read since the last hand-off: parsed requests with their line numbers, and rejected lines
+    private static final class Chunk {
+        private final List<NotificationRequest> requests;
+        private final List<Integer> requestLines;
+        private final List<NotificationResult> rejections = new ArrayList<>();
+        private int end;
+        private boolean handedOff;
+
+        private Chunk(int capacity) {
+            this.requests = new ArrayList<>(capacity);
+            this.requestLines = new ArrayList<>(capacity);
+        }
+
+        private void add(int lineNumber, NotificationRequest request) {
+            requests.add(request);
+            requestLines.add(lineNumber);
+        }
+
+        private void reject(int lineNumber, String error) {
+            rejections.add(NotificationResult.rejected(lineNumber, List.of(error)));
+        }
+
+        private int size() {
+            return requests.size() + rejections.size();
+        }
+    }
+
+    /**
+     * {@link java.io.BufferedReader#readLine()} with a length cap: the rest of a longer line is
+     * skipped as it is read instead of buffered, and the line is flagged as too long.
+     */
+    private static final class LineReader {
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        private LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        // False once the stream is exhausted
+        private boolean next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(0, in.read(buffer, 0, buffer.length));
+                    position = 0;
+                    if (limit == 0) {
+                        return read;
+                    }
+                }
+                read = true;
+                char c = buffer[position++];
+                if (c == '\n') {
+                    return true;
+                }
+                if (c == '\r' || tooLong) {
+                    continue;
+                }
+                if (line.length() == maxLength) {
+                    tooLong = true;
+                    line.setLength(0);
+                } else {
+                    line.append(c);
+                }
+            }
+        }
+
+        private String line() {
+            return line.toString();
+        }
+
+        private boolean tooLong() {
+            return tooLong;
+        }
+    }
+
+    private final class Tally {
+        private long received;
+        private long accepted;
+        private long duplicates;
+        private long rejected;
+        private long lastLine;
+        private final List<NotificationResult> rejections = new ArrayList<>();
+
+        private synchronized void record(NotificationResult result) {
+            switch (result.getStatus()) {
+                case ACCEPTED -> accepted++;
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> {
+                    rejected++;
+                    if (rejections.size() < maxReportedRejections) {
+                        rejections.add(result);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.vedvix.notification.service.impl;
+
+import com.vedvix.notification.dto.NotificationReceipt;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationStatus;
+import com.vedvix.notification.infrastructure.MessagingProducer;
+import com.vedvix.notification.infrastructure.NotificationIdGenerator;
+import com.vedvix.notification.schedule.ScheduledNotificationStore;
+import com.vedvix.notification.schedule.TimingWheel;
+import com.vedvix.notification.service.NotificationSchedulerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process scheduling on a {@link TimingWheel} that holds only ids and deadlines, with the
+ * payloads in a {@link ScheduledNotificationStore}. The wheel is rebuilt from the store on startup,
+ * and a row is deleted only once the broker confirmed its notification, so a crash in between
+ * sends it again rather than losing it. A notification that fails to publish goes back on the
+ * wheel {@code retry-backoff} later.
+ * <p>
+ * Several instances can share the store. Each one rebuilds its wheel from every unclaimed row, and
+ * a fired timer first claims its row for {@code claim-lease}, so only one instance publishes it.
+ * Every {@code resync-interval} an instance also adds unclaimed rows due within the next two
+ * intervals that it has no timer for: rows scheduled elsewhere, and rows whose claimant died.
+ */
+@Service
+@ConditionalOnProperty(name = "notification.schedule.mode", havingValue = "wheel")
+@Slf4j
+public class TimingWheelSchedulerService implements NotificationSchedulerService {
+
+    private final ScheduledNotificationStore store;
+    private final MessagingProducer producer;
+    private final NotificationIdGenerator idGenerator;
+    private final long tickMillis;
+    private final int fireBatchSize;
+    private final long retryBackoffMillis;
+    private final Duration claimLease;
+    private final long resyncIntervalMillis;
+    private final String owner = UUID.randomUUID().toString();
+    private final TimingWheel<String> wheel;
+    private final Map<String, TimingWheel.Timer<String>> timers = new HashMap<>();
+    // Publish outcomes, completed on confirm threads and settled against the store on the ticker
+    private final Queue<Outcome> settled = new ConcurrentLinkedQueue<>();
+    // Claimed and handed to the producer, not yet settled
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-wheel-"));
+
+    public TimingWheelSchedulerService(ScheduledNotificationStore store,
+                                       MessagingProducer producer,
+                                       NotificationIdGenerator idGenerator,
+                                       @Value("${notification.schedule.wheel.tick:1s}") Duration tick,
+                                       @Value("${notification.schedule.wheel.fire-batch-size:1000}") int fireBatchSize,
+                                       @Value("${notification.schedule.wheel.retry-backoff:5s}") Duration retryBackoff,
+                                       @Value("${notification.schedule.wheel.claim-lease:5m}") Duration claimLease,
+                                       @Value("${notification.schedule.wheel.resync-interval:30s}") Duration resyncInterval) {
+        this.store = store;
+        this.producer = producer;
+        this.idGenerator = idGenerator;
+        this.tickMillis = tick.toMillis();
+        this.fireBatchSize = fireBatchSize;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.claimLease = claimLease;
+        this.resyncIntervalMillis = resyncInterval.toMillis();
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        int[] recovered = {0};
+        store.forEachPending((notificationId, deliverAtMillis) -> {
+            synchronized (wheel) {
+                timers.put(notificationId, wheel.add(deliverAtMillis, notificationId));
+            }
+            recovered[0]++;
+        });
+        log.info("Recovered {} scheduled notifications", recovered[0]);
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::resync, resyncIntervalMillis, resyncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<NotificationReceipt> schedule(NotificationRequest request, Instant deliverAt) {
+        String notificationId = idGenerator.nextId();
+        request.setNotificationId(notificationId);
+        store.save(request, deliverAt);
+        synchronized (wheel) {
+            timers.put(notificationId, wheel.add(deliverAt.toEpochMilli(), notificationId));
+        }
+        log.info("Scheduled notification {} for user {} at {}", notificationId, request.getUserId(), deliverAt);
+        return CompletableFuture.completedFuture(new NotificationReceipt(notificationId, NotificationStatus.ACCEPTED));
+    }
+
+    @Override
+    public boolean cancel(String notificationId) {
+        if (inFlight.contains(notificationId)) {
+            return false;
+        }
+        synchronized (wheel) {
+            TimingWheel.Timer<String> timer = timers.remove(notificationId);
+            if (timer != null) {
+                wheel.cancel(timer);
+            }
+        }
+        // The row decides, since the notification may have been scheduled on another instance
+        if (!store.delete(notificationId, owner)) {
+            return false;
+        }
+        log.info("Cancelled scheduled notification {}", notificationId);
+        return true;
+    }
+
+    void resync() {
+        int[] added = {0};
+        try {
+            store.forEachDue(Instant.ofEpochMilli(System.currentTimeMillis() + 2 * resyncIntervalMillis), (notificationId, deliverAtMillis) -> {
+                if (inFlight.contains(notificationId)) {
+                    return;
+                }
+                synchronized (wheel) {
+                    if (!timers.containsKey(notificationId)) {
+                        timers.put(notificationId, wheel.add(deliverAtMillis, notificationId));
+                        added[0]++;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to resync scheduled notifications", e);
+        }
+        if (added[0] > 0) {
+            log.info("Picked up {} scheduled notifications from the store", added[0]);
+        }
+    }
+
+    void tick() {
+        long now = System.currentTimeMillis();
+        settle(now);
+        List<String> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(now, notificationId -> {
+                timers.remove(notificationId);
+                due.add(notificationId);
+            });
+        }
+        for (int from = 0; from < due.size(); from += fireBatchSize) {
+            List<String> batch = due.subList(from, Math.min(due.size(), from + fireBatchSize));
+            List<NotificationRequest> requests;
+            try {
+                // Rows another instance claimed, or that were cancelled, are not returned and simply drop off
+                requests = store.claim(batch, owner, claimLease);
+            } catch (RuntimeException e) {
+                log.error("Failed to claim {} scheduled notifications, retrying in {}ms", batch.size(), retryBackoffMillis, e);
+                retry(batch, now);
+                continue;
+            }
+            for (NotificationRequest request : requests) {
+                String notificationId = request.getNotificationId();
+                inFlight.add(notificationId);
+                CompletableFuture<Void> published;
+                try {
+                    published = producer.publish(request);
+                } catch (RuntimeException e) {
+                    published = CompletableFuture.failedFuture(e);
+                }
+                published.whenComplete((ignored, ex) -> settled.add(new Outcome(notificationId, ex)));
+            }
+        }
+    }
+
+    // Deletes confirmed rows and puts failed ones back on the wheel
+    private void settle(long now) {
+        List<String> delivered = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        Outcome outcome;
+        while ((outcome = settled.poll()) != null) {
+            inFlight.remove(outcome.notificationId());
+            if (outcome.error() == null) {
+                delivered.add(outcome.notificationId());
+            } else {
+                log.warn("Failed to publish scheduled notification {}, retrying in {}ms", outcome.notificationId(), retryBackoffMillis, outcome.error());
+                failed.add(outcome.notificationId());
+            }
+        }
+        if (!delivered.isEmpty()) {
+            try {
+                store.deleteAll(delivered);
+            } catch (RuntimeException e) {
+                log.error("Failed to delete {} delivered scheduled notifications, retrying next tick", delivered.size(), e);
+                delivered.forEach(notificationId -> {
+                    inFlight.add(notificationId);
+                    settled.add(new Outcome(notificationId, null));
+                });
+            }
+        }
+        retry(failed, now);
+    }
+
+    private void retry(List<String> notificationIds, long now) {
+        synchronized (wheel) {
+            for (String notificationId : notificationIds) {
+                timers.computeIfAbsent(notificationId, id -> wheel.add(now + retryBackoffMillis, id));
+            }
+        }
+    }
+
+    private record Outcome(String notificationId, Throwable error) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.vedvix.notification.transport;
+
+import com.vedvix.notification.config.RabbitConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.infrastructure.MessagePublisher;
+import com.vedvix.notification.infrastructure.QueueWaitRecorder;
+import com.vedvix.notification.infrastructure.UnroutableMessageException;
+import com.vedvix.notification.routing.Route;
+import com.vedvix.notification.routing.RoutingTable;
+import com.vedvix.notification.worker.NotificationWorker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Broker-less transport for single-node deployments, tests and benchmarks. Every queue of the
+ * routing table becomes a {@link RingBuffer} drained by one consumer thread, which runs the same
+ * receive post-processing and message conversion as the AMQP listener containers and hands the
+ * request to the channel's worker. The consumer doesn't wait for the provider, just as the
+ * listener containers ack asynchronously, but each queue has at most {@code max-in-flight}
+ * requests outstanding. A publish completes as soon as the message is in its ring, so messages
+ * still in a ring are lost if the process dies.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "memory")
+@Slf4j
+public class InMemoryTransport implements MessagePublisher {
+
+    private static final int SPINS_BEFORE_PARK = 1_000;
+
+    private final Map<String, Queue> queues = new HashMap<>();
+    private final MessageConverter messageConverter;
+    private final MessagePostProcessor[] receivePostProcessors;
+    private final long offerTimeoutNanos;
+    private final int drainBatchSize;
+    private ExecutorService consumers;
+    private volatile boolean running;
+
+    public InMemoryTransport(RoutingTable routingTable,
+                             List<NotificationWorker> workers,
+                             MessageConverter messageConverter,
+                             QueueWaitRecorder queueWaitRecorder,
+                             @Value("${notification.memory-transport.ring-size:8192}") int ringSize,
+                             @Value("${notification.memory-transport.offer-timeout:1s}") Duration offerTimeout,
+                             @Value("${notification.memory-transport.drain-batch-size:256}") int drainBatchSize,
+                             @Value("${notification.memory-transport.max-in-flight:1024}") int maxInFlight) {
+        this.messageConverter = messageConverter;
+        this.receivePostProcessors = RabbitConfig.receivePostProcessors(queueWaitRecorder);
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.drainBatchSize = drainBatchSize;
+        Map<ChannelType, NotificationWorker> byChannel = new EnumMap<>(ChannelType.class);
+        workers.forEach(worker -> byChannel.put(worker.channel(), worker));
+        for (Route route : routingTable.routes()) {
+            NotificationWorker worker = byChannel.get(route.channel());
+            if (worker == null) {
+                throw new IllegalStateException("No worker for channel " + route.channel());
+            }
+            for (int partition = 0; partition < Math.max(1, route.partitions()); partition++) {
+                queues.computeIfAbsent(route.partitionQueue(partition), name -> new Queue(name, new RingBuffer<>(ringSize), worker, new Semaphore(maxInFlight)));
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumers = Executors.newFixedThreadPool(queues.size(), new CustomizableThreadFactory("notification-ring-"));
+        queues.values().forEach(queue -> consumers.execute(() -> consume(queue)));
+        log.info("In-memory transport started with {} queues", queues.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        consumers.shutdown();
+        if (!consumers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("In-memory transport stopped with undelivered messages");
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        Queue queue = queues.get(routingKey);
+        if (queue == null) {
+            return CompletableFuture.failedFuture(new UnroutableMessageException("No in-memory queue for routing key " + routingKey));
+        }
+        if (!queue.ring().offer(message, offerTimeoutNanos)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("In-memory queue " + routingKey + " is full"));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void consume(Queue queue) {
+        int idle = 0;
+        while (running || queue.ring().size() > 0) {
+            int drained = queue.ring().drain(message -> deliver(queue, message), drainBatchSize);
+            if (drained > 0) {
+                idle = 0;
+            } else if (++idle < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    private void deliver(Queue queue, Message message) {
+        CompletableFuture<Void> handled;
+        queue.inFlight().acquireUninterruptibly();
+        try {
+            message.getMessageProperties().setConsumerQueue(queue.name());
+            for (MessagePostProcessor processor : receivePostProcessors) {
+                message = processor.postProcessMessage(message);
+            }
+            message.getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+            handled = queue.worker().handleNotification((NotificationRequest) messageConverter.fromMessage(message));
+        } catch (Exception e) {
+            handled = CompletableFuture.failedFuture(e);
+        }
+        handled.whenComplete((done, ex) -> {
+            queue.inFlight().release();
+            if (ex != null) {
+                log.error("Failed to process notification from in-memory queue {}", queue.name(), ex);
+            }
+        });
+    }
+
+    private record Queue(String name, RingBuffer<Message> ring, NotificationWorker worker, Semaphore inFlight) {
+    }
+}
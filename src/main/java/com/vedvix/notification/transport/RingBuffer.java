@@ -0,0 +1,101 @@
+package com.vedvix.notification.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring in the style of the LMAX Disruptor. Producers
+ * claim a sequence with one CAS, write the slot and then publish it by storing the sequence in
+ * the slot's marker; the consumer reads slots in sequence order for as long as their markers are
+ * published. No locks are taken on either side, and slots are reused, not reallocated.
+ */
+public class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+
+    public RingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.entries = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publishes the entry, waiting up to {@code timeoutNanos} for the consumer to free a slot.
+     *
+     * @return false when the ring stayed full for the whole timeout
+     */
+    public boolean offer(E entry, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        long sequence;
+        while (true) {
+            long current = claimed.get();
+            sequence = current + 1;
+            if (sequence - capacity > consumed) {
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(1_000);
+                continue;
+            }
+            if (claimed.compareAndSet(current, sequence)) {
+                break;
+            }
+        }
+        int index = (int) sequence & mask;
+        entries[index] = entry;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published entries to the handler in sequence order. Must only be
+     * called from the single consumer thread.
+     *
+     * @return the number of entries handled
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<E> handler, int max) {
+        long next = consumed + 1;
+        int count = 0;
+        try {
+            while (count < max) {
+                int index = (int) next & mask;
+                if (published.get(index) != next) {
+                    break;
+                }
+                E entry = (E) entries[index];
+                entries[index] = null;
+                next++;
+                count++;
+                handler.accept(entry);
+            }
+        } finally {
+            if (count > 0) {
+                consumed = next - 1;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return (int) (claimed.get() - consumed);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
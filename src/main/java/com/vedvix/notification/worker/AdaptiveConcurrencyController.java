@@ -0,0 +1,213 @@
+package com.vedvix.notification.worker;
+
+import com.vedvix.notification.config.AdaptiveConcurrencyConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationPriority;
+import com.vedvix.notification.infrastructure.QueueWaitRecorder;
+import com.vedvix.notification.routing.RoutingTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resizes the consumers of every running simple listener container on a fixed interval, taking
+ * over from the container's own idle-based scaling. A container backs off by one consumer while
+ * its channel's provider fails or answers slowly, grows towards one consumer per
+ * {@code backlog-per-consumer} waiting messages (at most doubling per step), and shrinks by one
+ * once its queues are empty and its consumers took nothing up since the last step. Prefetched and
+ * unacked messages are not counted as waiting by the broker, so the latter keeps busy consumers.
+ * Every container stays within its lane's bounds, and never below the concurrency its listener is
+ * configured with. Partitioned channels are left alone, since they must keep exactly one consumer
+ * per partition queue.
+ * <p>
+ * Exposes {@code notification.consumers.target} and {@code notification.queue.depth} gauges per
+ * listener, and counts every change in {@code notification.consumers.scaling} by direction and reason.
+ */
+@Component
+@ConditionalOnExpression("${notification.adaptive-concurrency.enabled:false} and '${notification.transport:amqp}' == 'amqp'")
+@Slf4j
+public class AdaptiveConcurrencyController {
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final RoutingTable routingTable;
+    private final ProviderStats providerStats;
+    private final AdaptiveConcurrencyConfig config;
+    private final MeterRegistry meterRegistry;
+    private final QueueWaitRecorder queueWaitRecorder;
+    // The lanes' listener concurrency, whose minimum no container goes below
+    private final Map<NotificationPriority, Integer> configuredMin = new EnumMap<>(NotificationPriority.class);
+
+    private final Map<MessageListenerContainer, ListenerState> states = new HashMap<>();
+
+    public AdaptiveConcurrencyController(RabbitListenerEndpointRegistry listenerRegistry,
+                                         AmqpAdmin amqpAdmin,
+                                         RoutingTable routingTable,
+                                         ProviderStats providerStats,
+                                         AdaptiveConcurrencyConfig config,
+                                         MeterRegistry meterRegistry,
+                                         QueueWaitRecorder queueWaitRecorder,
+                                         @Value("${notification.lanes.high.concurrency:2-8}") String highConcurrency,
+                                         @Value("${notification.lanes.low.concurrency:1-4}") String lowConcurrency) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.routingTable = routingTable;
+        this.providerStats = providerStats;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.queueWaitRecorder = queueWaitRecorder;
+        configuredMin.put(NotificationPriority.HIGH, minimum(highConcurrency));
+        configuredMin.put(NotificationPriority.LOW, minimum(lowConcurrency));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.adaptive-concurrency.interval:PT5S}")
+    public void adjust() {
+        Map<ChannelType, ProviderStats.Snapshot> provider = new EnumMap<>(ChannelType.class);
+        for (ChannelType channel : ChannelType.values()) {
+            provider.put(channel, providerStats.snapshotAndReset(channel));
+        }
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (container instanceof SimpleMessageListenerContainer simple && simple.isRunning()) {
+                ListenerState state = states.computeIfAbsent(container, ignored -> register(simple));
+                if (state != null) {
+                    adjust(simple, state, provider.get(state.channel));
+                }
+            }
+        }
+    }
+
+    private void adjust(SimpleMessageListenerContainer container, ListenerState state, ProviderStats.Snapshot provider) {
+        long depth = 0;
+        long delivered = 0;
+        for (String queue : container.getQueueNames()) {
+            QueueInformation info = amqpAdmin.getQueueInfo(queue);
+            if (info != null) {
+                depth += info.getMessageCount();
+            }
+            delivered += queueWaitRecorder.deliveredAndReset(queue);
+        }
+        state.depth.set(depth);
+
+        int min = min(state);
+        int max = Math.max(min, config.bounds(state.channel, state.lane).getMax());
+        int current = state.target.get();
+        int target = current;
+        String reason = null;
+        if (provider.errorRate() > config.getMaxErrorRate()) {
+            target = current - 1;
+            reason = "errors";
+        } else if (provider.meanLatencyMillis() > config.getMaxLatency().toMillis()) {
+            target = current - 1;
+            reason = "latency";
+        } else if (depth > (long) current * config.getBacklogPerConsumer()) {
+            long wanted = (depth + config.getBacklogPerConsumer() - 1) / config.getBacklogPerConsumer();
+            target = (int) Math.min(wanted, current * 2L);
+            reason = "backlog";
+        } else if (depth == 0 && delivered == 0) {
+            target = current - 1;
+            reason = "idle";
+        }
+        target = Math.max(min, Math.min(max, target));
+        if (target != current) {
+            resize(container, current, target);
+            state.target.set(target);
+            scaling(state, target > current ? "up" : "down", reason).increment();
+            log.info("Scaled {} {} consumers of {} from {} to {} ({}, depth {}, delivered {}, error rate {}, mean latency {}ms)",
+                    state.channel, state.lane, state.listener, current, target, reason, depth, delivered,
+                    provider.errorRate(), provider.meanLatencyMillis());
+        }
+    }
+
+    private ListenerState register(SimpleMessageListenerContainer container) {
+        for (ChannelType channel : ChannelType.values()) {
+            for (NotificationPriority lane : NotificationPriority.values()) {
+                if (listensTo(container.getQueueNames(), routingTable.queues(channel, lane))) {
+                    return routingTable.isPartitioned(channel) ? null : register(container, channel, lane);
+                }
+            }
+        }
+        return null;
+    }
+
+    private ListenerState register(SimpleMessageListenerContainer container, ChannelType channel, NotificationPriority lane) {
+        String listener = container.getListenerId() != null ? container.getListenerId() : String.join(",", container.getQueueNames());
+        ListenerState state = new ListenerState(channel, lane, listener, new AtomicInteger(), new AtomicLong());
+        int initial = min(state);
+        state.target.set(initial);
+        // Fixed size from here on, so the container's own scaling does not fight these decisions
+        container.setConcurrentConsumers(initial);
+        container.setMaxConcurrentConsumers(initial);
+        Gauge.builder("notification.consumers.target", state.target, AtomicInteger::get)
+                .tag("channel", channel.name())
+                .tag("lane", lane.name())
+                .tag("listener", listener)
+                .register(meterRegistry);
+        Gauge.builder("notification.queue.depth", state.depth, AtomicLong::get)
+                .tag("channel", channel.name())
+                .tag("lane", lane.name())
+                .tag("listener", listener)
+                .register(meterRegistry);
+        return state;
+    }
+
+    private int min(ListenerState state) {
+        return Math.max(configuredMin.get(state.lane), config.bounds(state.channel, state.lane).getMin());
+    }
+
+    // SMLC rejects a consumer count above its maximum, so the order depends on the direction
+    private static void resize(SimpleMessageListenerContainer container, int current, int target) {
+        if (target > current) {
+            container.setMaxConcurrentConsumers(target);
+            container.setConcurrentConsumers(target);
+        } else {
+            container.setConcurrentConsumers(target);
+            container.setMaxConcurrentConsumers(target);
+        }
+    }
+
+    private static boolean listensTo(String[] queueNames, String[] laneQueues) {
+        for (String queue : laneQueues) {
+            for (String name : queueNames) {
+                if (queue.equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // "2-8" or "4", as in a listener's concurrency attribute
+    private static int minimum(String concurrency) {
+        return Integer.parseInt(concurrency.split("-")[0].trim());
+    }
+
+    private Counter scaling(ListenerState state, String direction, String reason) {
+        return Counter.builder("notification.consumers.scaling")
+                .tag("channel", state.channel.name())
+                .tag("lane", state.lane.name())
+                .tag("listener", state.listener)
+                .tag("direction", direction)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record ListenerState(ChannelType channel, NotificationPriority lane, String listener,
+                                 AtomicInteger target, AtomicLong depth) {
+    }
+}
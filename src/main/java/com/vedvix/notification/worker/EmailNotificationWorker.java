@@ -1,36 +1,76 @@
 package com.vedvix.notification.worker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.ChannelType;
 import com.vedvix.notification.dto.NotificationRequest;
-import jakarta.annotation.PostConstruct;
+import com.vedvix.notification.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailNotificationWorker implements NotificationWorker {
 
-    private final ObjectMapper objectMapper;
+    private static final String EMAIL_PLACEHOLDER = "email";
+
+    private final ProviderStats providerStats;
+    private final EmailService emailService;
 
     @Override
-    public void handleNotification(NotificationRequest request) {
-        log.info("Sending Email to {} with template {} and placeholders {}", request.getUserId(), request.getTemplateCode(), request.getPlaceholders());
+    public ChannelType channel() {
+        return ChannelType.EMAIL;
+    }
 
-        // TODO: Integrate AWS SES here
+    @Override
+    public CompletableFuture<Void> handleNotification(NotificationRequest request) {
+        return send(request).thenApply(sent -> null);
     }
-    /*
-    @RabbitListener(queues = "${notification.queues.email}")
-    public void listen(String message) {
-        try {
-            NotificationRequest request = objectMapper.readValue(message, NotificationRequest.class);
-            handleNotification(request);
-        } catch (Exception e) {
-            log.error("Failed to process email notification", e);
+
+    // The template code names the SES template; the recipient comes from the "email" placeholder, without it there is no one to send to
+    private CompletableFuture<String> send(NotificationRequest request) {
+        log.info("Sending Email to {} with template {} and placeholders {}", request.getUserId(), request.getTemplateCode(), request.getPlaceholders());
+        Map<String, String> placeholders = request.getPlaceholders() == null ? Map.of() : request.getPlaceholders();
+        String toAddress = placeholders.get(EMAIL_PLACEHOLDER);
+        if (toAddress == null || toAddress.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Email notification for user " + request.getUserId() + " has no \"" + EMAIL_PLACEHOLDER + "\" placeholder"));
         }
+        return emailService.sendTemplated(request.getTemplateCode(), toAddress, placeholders);
     }
 
+    /**
+     * Adds the email to its template's bulk send and returns; the container acks once this
+     * email's result comes back. Failed sends are logged and acked, as before. Partitioned queues
+     * don't wait either: each partition hands its emails to the batcher in queue order, and SES
+     * doesn't order the destinations of a bulk send, so waiting out the linger per email bought
+     * no order, only a cap of one email per linger.
      */
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).EMAIL, T(com.vedvix.notification.dto.NotificationPriority).LOW)}",
+            containerFactory = "#{@routingTable.containerFactory(T(com.vedvix.notification.dto.ChannelType).EMAIL)}",
+            concurrency = "#{@routingTable.concurrency(T(com.vedvix.notification.dto.ChannelType).EMAIL, '${notification.lanes.low.concurrency:1-4}')}")
+    public CompletableFuture<Void> listen(NotificationRequest request) {
+        long start = System.nanoTime();
+        return send(request).handle((messageId, ex) -> {
+            if (ex == null) {
+                log.info("Email sent successfully: {}", messageId);
+            } else {
+                log.error("Failed to process email notification", ex);
+            }
+            providerStats.record(channel(), System.nanoTime() - start, ex == null);
+            return null;
+        });
+    }
+
+    // A separate container, so a bulk backlog never occupies the consumers of the high priority lane
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).EMAIL, T(com.vedvix.notification.dto.NotificationPriority).HIGH)}",
+            containerFactory = "#{@routingTable.containerFactory(T(com.vedvix.notification.dto.ChannelType).EMAIL)}",
+            concurrency = "#{@routingTable.concurrency(T(com.vedvix.notification.dto.ChannelType).EMAIL, '${notification.lanes.high.concurrency:2-8}')}")
+    public CompletableFuture<Void> listenHighPriority(NotificationRequest request) {
+        return listen(request);
+    }
 }
@@ -0,0 +1,35 @@
+package com.vedvix.notification.worker;
+
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.routing.RoutingTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which of a worker's alternative listeners start, for the {@code autoStartup}
+ * expressions on the {@code @RabbitListener} methods.
+ */
+@Component
+public class ListenerModes {
+
+    private final RoutingTable routingTable;
+    private final boolean amqp;
+    private final boolean smsBatch;
+
+    public ListenerModes(RoutingTable routingTable,
+                         @Value("${notification.transport:amqp}") String transport,
+                         @Value("${notification.sms.batch.enabled:false}") boolean smsBatch) {
+        this.routingTable = routingTable;
+        this.amqp = "amqp".equals(transport);
+        this.smsBatch = smsBatch;
+    }
+
+    // Batches are dispatched concurrently, which would break the per-user order of partitioned queues
+    public boolean smsBatch() {
+        return amqp && smsBatch && !routingTable.isPartitioned(ChannelType.SMS);
+    }
+
+    public boolean smsSingle() {
+        return amqp && !smsBatch();
+    }
+}
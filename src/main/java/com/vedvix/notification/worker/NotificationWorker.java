@@ -1,8 +1,17 @@
 package com.vedvix.notification.worker;
 
 
+import com.vedvix.notification.dto.ChannelType;
 import com.vedvix.notification.dto.NotificationRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface NotificationWorker {
-    void handleNotification(NotificationRequest request);
-}
\ No newline at end of file
+    ChannelType channel();
+
+    /**
+     * Hands the request to the channel's provider and returns without waiting for it; the future
+     * completes once the provider has answered, exceptionally if the send failed.
+     */
+    CompletableFuture<Void> handleNotification(NotificationRequest request);
+}
@@ -0,0 +1,71 @@
+package com.vedvix.notification.worker;
+
+import com.vedvix.notification.dto.ChannelType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Provider call latency and outcome per channel, recorded by the workers. Exposed as the
+ * {@code notification.provider.latency} timer, and kept as a resettable window for the
+ * adaptive concurrency controller.
+ */
+@Component
+public class ProviderStats {
+
+    private final Map<ChannelType, Window> windows = new EnumMap<>(ChannelType.class);
+    private final Map<ChannelType, Timer> succeeded = new EnumMap<>(ChannelType.class);
+    private final Map<ChannelType, Timer> failed = new EnumMap<>(ChannelType.class);
+
+    public ProviderStats(MeterRegistry meterRegistry) {
+        for (ChannelType channel : ChannelType.values()) {
+            windows.put(channel, new Window());
+            succeeded.put(channel, timer(meterRegistry, channel, "success"));
+            failed.put(channel, timer(meterRegistry, channel, "error"));
+        }
+    }
+
+    public void record(ChannelType channel, long nanos, boolean success) {
+        (success ? succeeded : failed).get(channel).record(nanos, TimeUnit.NANOSECONDS);
+        Window window = windows.get(channel);
+        window.calls.increment();
+        window.nanos.add(nanos);
+        if (!success) {
+            window.errors.increment();
+        }
+    }
+
+    /**
+     * Calls, error rate and mean latency since the previous snapshot of this channel.
+     */
+    public Snapshot snapshotAndReset(ChannelType channel) {
+        Window window = windows.get(channel);
+        long calls = window.calls.sumThenReset();
+        long errors = window.errors.sumThenReset();
+        long nanos = window.nanos.sumThenReset();
+        return calls == 0
+                ? new Snapshot(0, 0, 0)
+                : new Snapshot(calls, (double) errors / calls, TimeUnit.NANOSECONDS.toMillis(nanos / calls));
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, ChannelType channel, String outcome) {
+        return Timer.builder("notification.provider.latency")
+                .tag("channel", channel.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public record Snapshot(long calls, double errorRate, long meanLatencyMillis) {
+    }
+
+    private static final class Window {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
@@ -1,26 +1,40 @@
 package com.vedvix.notification.worker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
+import com.vedvix.notification.dto.ChannelType;
 import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.service.PushNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PushNotificationWorker implements NotificationWorker {
 
-    private final ObjectMapper objectMapper;
+    private final ProviderStats providerStats;
+    private final PushNotificationService pushNotificationService;
+
+    @Override
+    public ChannelType channel() {
+        return ChannelType.PUSH;
+    }
 
     @Override
-    public void handleNotification(NotificationRequest request) {
+    public CompletableFuture<Void> handleNotification(NotificationRequest request) {
+        return send(request).thenApply(sent -> null);
+    }
+
+    private CompletableFuture<String> send(NotificationRequest request) {
         log.info("Sending Push Notification to {} with template {}", request.getUserId(), request.getTemplateCode());
-        // TODO: Integrate Firebase FCM here
         Notification notification = Notification.builder()
                 .setTitle(request.getProjectId())
-                .setBody(request.getPlaceholders().toString())
+                .setBody(String.valueOf(request.getPlaceholders()))
                 .build();
 
         // For direct device messaging, use the following:
@@ -36,23 +50,38 @@ public class PushNotificationWorker implements NotificationWorker {
                 .setNotification(notification)
                 .build();
 
-        try {
-            String result= FirebaseMessaging.getInstance().send(message);
-            log.info("Push Notification sent successfully: {}", result);
-        } catch (FirebaseMessagingException e) {
-            throw new RuntimeException(e);
-        }
+        return pushNotificationService.send(message);
     }
 
-    @RabbitListener(queues = "${notification.queues.push}")
-    public void listen(NotificationRequest request) {
-        try {
-            log.info("Received Push Notification request");
-            handleNotification(request);
-        } catch (Exception e) {
-            log.error("Failed to process push notification", e);
-        }
+    /**
+     * Hands the message to the FCM batcher and returns, so consumers keep feeding the batch window;
+     * the container acks once this message's result comes back. Failed sends are logged and acked,
+     * as before. Partitioned queues don't wait either: each partition hands its messages to the
+     * batcher in queue order, and FCM sends a batch's messages concurrently, so waiting out the
+     * linger per message bought no order, only a cap of one message per linger.
+     */
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).PUSH, T(com.vedvix.notification.dto.NotificationPriority).LOW)}",
+            containerFactory = "#{@routingTable.containerFactory(T(com.vedvix.notification.dto.ChannelType).PUSH)}",
+            concurrency = "#{@routingTable.concurrency(T(com.vedvix.notification.dto.ChannelType).PUSH, '${notification.lanes.low.concurrency:1-4}')}")
+    public CompletableFuture<Void> listen(NotificationRequest request) {
+        log.info("Received Push Notification request");
+        long start = System.nanoTime();
+        return send(request).handle((result, ex) -> {
+            if (ex == null) {
+                log.info("Push Notification sent successfully: {}", result);
+            } else {
+                log.error("Failed to process push notification", ex);
+            }
+            providerStats.record(channel(), System.nanoTime() - start, ex == null);
+            return null;
+        });
     }
 
- */
+    // A separate container, so a bulk backlog never occupies the consumers of the high priority lane
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).PUSH, T(com.vedvix.notification.dto.NotificationPriority).HIGH)}",
+            containerFactory = "#{@routingTable.containerFactory(T(com.vedvix.notification.dto.ChannelType).PUSH)}",
+            concurrency = "#{@routingTable.concurrency(T(com.vedvix.notification.dto.ChannelType).PUSH, '${notification.lanes.high.concurrency:2-8}')}")
+    public CompletableFuture<Void> listenHighPriority(NotificationRequest request) {
+        return listen(request);
+    }
 }
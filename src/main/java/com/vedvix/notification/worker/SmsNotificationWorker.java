@@ -1,47 +1,118 @@
 package com.vedvix.notification.worker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.twilio.rest.api.v2010.account.Message;
-import com.vedvix.notification.config.TwilioConfig;
+import com.vedvix.notification.dto.ChannelType;
 import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.routing.RoutingTable;
+import com.vedvix.notification.service.SmsService;
+import com.vedvix.notification.template.TemplateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.logging.Logger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SmsNotificationWorker implements NotificationWorker {
 
-    private final ObjectMapper objectMapper;
-    @Autowired
-    private TwilioConfig twilioConfig;
-    @Override
-    public void handleNotification(NotificationRequest request) {
-        log.info("Sending SMS to {} using template {} and placeholders {}", request.getUserId(), request.getTemplateCode(), request.getPlaceholders());
-        // TODO: Integrate Twilio here
-        Message message = Message.creator(
-                new com.twilio.type.PhoneNumber("+918983375352"),
-                new com.twilio.type.PhoneNumber(twilioConfig.getFromNumber()),request.getPlaceholders().toString()).create();
-        System.out.println(message.getSid());
-        log.info("Message sent successfully"+message.getSid());
+    private static final String PHONE_PLACEHOLDER = "phone";
+    private static final String TEMPLATE_PATH = "sms/%s.ftl";
 
+    private final ProviderStats providerStats;
+    private final SmsService smsService;
+    private final TemplateService templateService;
+    private final RoutingTable routingTable;
 
+    @Override
+    public ChannelType channel() {
+        return ChannelType.SMS;
+    }
+
+    @Override
+    public CompletableFuture<Void> handleNotification(NotificationRequest request) {
+        CompletableFuture<Void> sent = send(request).thenApply(message -> null);
+        if (routingTable.isPartitioned(channel())) {
+            // As in listen: per-user order only holds while one send at a time is outstanding
+            sent.handle((message, ex) -> null).join();
+        }
+        return sent;
     }
 
-    @RabbitListener(queues = "${notification.queues.sms}")
-    public void listen(NotificationRequest message) {
+    // The recipient comes from the "phone" placeholder, without it there is no one to send to; the
+    // body is the template code's FreeMarker template rendered with the placeholders
+    private CompletableFuture<Message> send(NotificationRequest request) {
+        log.info("Sending SMS to {} using template {} and placeholders {}", request.getUserId(), request.getTemplateCode(), request.getPlaceholders());
+        Map<String, String> placeholders = request.getPlaceholders() == null ? Map.of() : request.getPlaceholders();
+        String to = placeholders.get(PHONE_PLACEHOLDER);
+        if (to == null || to.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "SMS notification for user " + request.getUserId() + " has no \"" + PHONE_PLACEHOLDER + "\" placeholder"));
+        }
+        String body;
         try {
-            //NotificationRequest request = objectMapper.readValue(message, NotificationRequest.class);
-            handleNotification(message);
-        } catch (Exception e) {
-            log.error("Failed to process SMS notification", e);
+            body = templateService.renderTemplate(TEMPLATE_PATH.formatted(request.getTemplateCode()), new HashMap<>(placeholders));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return smsService.sendSms(to, body);
     }
 
+    /**
+     * Returns as soon as the send is handed to Twilio, so the consumer thread can take the next
+     * message; the container acks once the future completes. Failed sends are logged and acked,
+     * as before. Partitioned queues wait for each send, since per-user order
+     * only holds while one message at a time is outstanding.
+     */
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).SMS, T(com.vedvix.notification.dto.NotificationPriority).LOW)}",
+            containerFactory = "#{@routingTable.containerFactory(T(com.vedvix.notification.dto.ChannelType).SMS)}",
+            concurrency = "#{@routingTable.concurrency(T(com.vedvix.notification.dto.ChannelType).SMS, '${notification.lanes.low.concurrency:1-4}')}",
+            autoStartup = "#{@listenerModes.smsSingle()}")
+    public CompletableFuture<Void> listen(NotificationRequest message) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> done = send(message).handle((sent, ex) -> {
+            if (ex == null) {
+                log.info("Message sent successfully {}", sent.getSid());
+            } else {
+                log.error("Failed to process SMS notification", ex);
+            }
+            providerStats.record(channel(), System.nanoTime() - start, ex == null);
+            return null;
+        });
+        if (routingTable.isPartitioned(channel())) {
+            done.join();
+        }
+        return done;
+    }
 
+    /**
+     * Campaign mode for the low priority lane: the container hands over up to {@code batch-size}
+     * messages at once, they are sent to Twilio concurrently within the account's in-flight window,
+     * and the whole batch is acked with a single multiple-ack once every send has finished. Failed
+     * sends are logged like single ones.
+     */
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).SMS, T(com.vedvix.notification.dto.NotificationPriority).LOW)}",
+            containerFactory = "batchListenerContainerFactory",
+            concurrency = "${notification.lanes.low.concurrency:1-4}",
+            autoStartup = "#{@listenerModes.smsBatch()}")
+    public void listenBatch(List<NotificationRequest> batch) {
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(this::listen)
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).join();
+        log.debug("Dispatched SMS batch of {}", batch.size());
+    }
+
+    // A separate container, so a bulk backlog never occupies the consumers of the high priority lane
+    @RabbitListener(queues = "#{@routingTable.queues(T(com.vedvix.notification.dto.ChannelType).SMS, T(com.vedvix.notification.dto.NotificationPriority).HIGH)}",
+            containerFactory = "#{@routingTable.containerFactory(T(com.vedvix.notification.dto.ChannelType).SMS)}",
+            concurrency = "#{@routingTable.concurrency(T(com.vedvix.notification.dto.ChannelType).SMS, '${notification.lanes.high.concurrency:2-8}')}")
+    public CompletableFuture<Void> listenHighPriority(NotificationRequest message) {
+        return listen(message);
+    }
 }
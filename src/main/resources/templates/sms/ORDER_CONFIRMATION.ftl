@@ -0,0 +1 @@
+Hi ${userName}, thank you for your order ${orderId}. We will notify you once it is out for delivery.
@@ -0,0 +1,80 @@
+package com.vedvix.notification.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.infrastructure.NotificationMessageEncoder;
+import com.vedvix.notification.infrastructure.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request publish encoding cost for a three channel notification: the old path (String per
+ * channel, then re-encoded by Jackson2JsonMessageConverter) against encoding once to bytes.
+ * Run {@link #main} to get the gc.alloc.rate.norm column, which is allocated bytes per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter converter;
+    private NotificationMessageEncoder encoder;
+    private NotificationRequest request;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        converter = new Jackson2JsonMessageConverter(objectMapper);
+        encoder = new NotificationMessageEncoder(objectMapper, WireFormat.JSON, false, 0);
+        request = new NotificationRequest();
+        request.setNotificationId("0J8ZK3Q1W2E4R");
+        request.setProjectId("p1-prod");
+        request.setUserId("user-123");
+        request.setChannels(List.of(ChannelType.PUSH, ChannelType.EMAIL, ChannelType.SMS));
+        request.setTemplateCode("ORDER_CONFIRMATION");
+        request.setPlaceholders(Map.of("userName", "John", "orderId", "ORD123456", "total", "42.50"));
+    }
+
+    @Benchmark
+    public void stringPerChannel(Blackhole blackhole) throws Exception {
+        for (ChannelType ignored : request.getChannels()) {
+            String json = objectMapper.writeValueAsString(request);
+            blackhole.consume(converter.toMessage(json, new MessageProperties()));
+        }
+    }
+
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) {
+        blackhole.consume(encoder.encode(request));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
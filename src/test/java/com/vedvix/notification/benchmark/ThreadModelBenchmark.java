@@ -0,0 +1,80 @@
+package com.vedvix.notification.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the current thread-per-request model (a 200 thread pool, Tomcat's default maximum)
+ * against one virtual thread per task, for tasks that block like a Twilio or FCM round trip.
+ * Reports throughput, peak in-flight tasks, peak live platform threads and memory in use.
+ * <p>
+ * Needs a Java 21 runtime for the virtual thread run:
+ * {@code java -cp target/test-classes com.vedvix.notification.benchmark.ThreadModelBenchmark [tasks] [latencyMs]}
+ */
+public class ThreadModelBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 200;
+
+        run("platform-pool-" + PLATFORM_POOL_SIZE, Executors.newFixedThreadPool(PLATFORM_POOL_SIZE), tasks, latencyMs);
+        ExecutorService virtual = virtualThreadExecutor();
+        if (virtual == null) {
+            System.out.println("virtual threads: skipped, requires Java 21 (running " + Runtime.version() + ")");
+        } else {
+            run("virtual-per-task", virtual, tasks, latencyMs);
+        }
+    }
+
+    private static void run(String name, ExecutorService executor, int tasks, long latencyMs) throws Exception {
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        long heapPeak = memory.getHeapMemoryUsage().getUsed();
+        done.await();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        System.out.printf("%-22s tasks=%d latency=%dms elapsed=%dms throughput=%.0f/s peakInFlight=%d peakPlatformThreads=%d heapDelta=%dKB nonHeap=%dKB%n",
+                name, tasks, latencyMs, elapsedMs, tasks * 1000.0 / Math.max(elapsedMs, 1), peakInFlight.get(),
+                threads.getPeakThreadCount(), (heapPeak - heapBefore) / 1024, memory.getNonHeapMemoryUsage().getUsed() / 1024);
+    }
+
+    // Looked up reflectively so the benchmark still compiles against the default Java 17 target
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.vedvix.notification.benchmark;
+
+import com.vedvix.notification.schedule.TimingWheel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+
+/**
+ * Inserts, cancels and fires a large number of timers on the scheduler's timing wheel with one
+ * second ticks and deadlines spread over 30 days, reporting ns per operation and heap per timer.
+ * The wheel holds only ids, as in the scheduler service; give the JVM room for 10M entries:
+ * {@code java -Xmx4g -cp target/test-classes:target/classes com.vedvix.notification.benchmark.TimingWheelBenchmark [timers]}
+ */
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1_000;
+    private static final long HORIZON_MILLIS = 30L * 24 * 3600 * 1000;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(7);
+        long[] deadlines = new long[count];
+        for (int i = 0; i < count; i++) {
+            deadlines[i] = start + random.nextLong(HORIZON_MILLIS);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK_MILLIS, start);
+        @SuppressWarnings("unchecked")
+        TimingWheel.Timer<Long>[] timers = new TimingWheel.Timer[count];
+        long insertStart = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            timers[i] = wheel.add(deadlines[i], (long) i);
+        }
+        long insertNanos = System.nanoTime() - insertStart;
+
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+        int toCancel = count / 10;
+        long cancelStart = System.nanoTime();
+        for (int i = 0; i < toCancel; i++) {
+            wheel.cancel(timers[i * 10]);
+        }
+        long cancelNanos = System.nanoTime() - cancelStart;
+        timers = null;
+
+        long[] fired = {0};
+        long fireStart = System.nanoTime();
+        for (long now = start; wheel.size() > 0; now += TICK_MILLIS) {
+            wheel.advanceTo(now, ignored -> fired[0]++);
+        }
+        long fireNanos = System.nanoTime() - fireStart;
+
+        System.out.printf("timers:  %,d%n", count);
+        System.out.printf("insert:  %.1f ns/op%n", (double) insertNanos / count);
+        System.out.printf("cancel:  %.1f ns/op%n", (double) cancelNanos / toCancel);
+        System.out.printf("fire:    %.1f ns/op over %,d ticks (including cascades and idle ticks)%n",
+                (double) fireNanos / fired[0], HORIZON_MILLIS / TICK_MILLIS);
+        System.out.printf("heap:    %.1f bytes/timer%n", (double) (heapAfter - heapBefore) / count);
+    }
+}
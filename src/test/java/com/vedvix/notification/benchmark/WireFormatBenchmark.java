@@ -0,0 +1,90 @@
+package com.vedvix.notification.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.config.RabbitConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.infrastructure.NotificationMessageEncoder;
+import com.vedvix.notification.infrastructure.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of a notification message per wire format, decoding through the
+ * same content type delegating converter the listeners use. {@link #main} prints the body size
+ * of each format before running.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    private WireFormat format;
+
+    private NotificationMessageEncoder encoder;
+    private MessageConverter converter;
+    private NotificationRequest request;
+    private Message encoded;
+
+    @Setup
+    public void setUp() {
+        encoder = new NotificationMessageEncoder(new ObjectMapper(), format, false, 0);
+        converter = new RabbitConfig().messageConverter();
+        request = sampleRequest();
+        encoded = encoder.encode(request);
+        encoded.getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return encoder.encode(request);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(encoded);
+    }
+
+    static NotificationRequest sampleRequest() {
+        NotificationRequest request = new NotificationRequest();
+        request.setNotificationId("0J8ZK3Q1W2E4R");
+        request.setProjectId("p1-prod");
+        request.setUserId("user-123");
+        request.setChannels(List.of(ChannelType.PUSH, ChannelType.EMAIL, ChannelType.SMS));
+        request.setTemplateCode("ORDER_CONFIRMATION");
+        request.setPlaceholders(Map.of("userName", "John", "orderId", "ORD123456", "total", "42.50"));
+        return request;
+    }
+
+    public static void main(String[] args) throws Exception {
+        NotificationRequest request = sampleRequest();
+        for (WireFormat format : WireFormat.values()) {
+            int bytes = new NotificationMessageEncoder(new ObjectMapper(), format, false, 0).encode(request).getBody().length;
+            System.out.printf("%-6s %d bytes/msg%n", format, bytes);
+        }
+        new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
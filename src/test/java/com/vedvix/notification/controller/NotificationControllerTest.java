@@ -0,0 +1,52 @@
+package com.vedvix.notification.controller;
+
+import com.vedvix.notification.dto.NotificationResult;
+import com.vedvix.notification.dto.StreamIngestResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class NotificationControllerTest {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AtomicReference<String> body = new AtomicReference<>();
+    private final AtomicReference<StreamIngestResponse> response = new AtomicReference<>();
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new NotificationController(null, ndjson -> {
+        body.set(new String(ndjson.readAllBytes(), StandardCharsets.UTF_8));
+        return response.get();
+    }, null)).build();
+
+    @Test
+    void acceptsACompleteStream() throws Exception {
+        response.set(new StreamIngestResponse(2, 1, 0, 1, List.of(NotificationResult.rejected(2, List.of("malformed JSON"))), true, 2));
+
+        mvc.perform(post("/api/v1/notifications/send/stream").contentType(NDJSON).content("{}\n{not json\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.complete").value(true))
+                .andExpect(jsonPath("$.rejections[0].index").value(2));
+
+        assertThat(body.get()).isEqualTo("{}\n{not json\n");
+    }
+
+    @Test
+    void answers503WithThePartialTallyWhenIngestStoppedEarly() throws Exception {
+        response.set(new StreamIngestResponse(3, 3, 0, 0, List.of(), false, 3));
+
+        mvc.perform(post("/api/v1/notifications/send/stream").contentType(NDJSON).content("{}\n{}\n{}\n{}\n"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.complete").value(false))
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.lastLine").value(3));
+    }
+}
@@ -0,0 +1,56 @@
+package com.vedvix.notification.idempotency;
+
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyKeyResolverTest {
+
+    private final IdempotencyKeyResolver resolver = new IdempotencyKeyResolver(true);
+
+    @Test
+    void scopesClientKeysToTheProject() {
+        assertThat(resolver.resolve(request("p1", Map.of()), "abc")).isEqualTo("key:p1:abc");
+        assertThat(resolver.resolve(request("p2", Map.of()), "abc")).isNotEqualTo(resolver.resolve(request("p1", Map.of()), "abc"));
+    }
+
+    @Test
+    void hashesTheContentWhenNoClientKeyIsGiven() {
+        Map<String, String> ordered = new LinkedHashMap<>();
+        ordered.put("a", "1");
+        ordered.put("b", "2");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("b", "2");
+        reversed.put("a", "1");
+
+        String key = resolver.resolve(request("p1", ordered), null);
+
+        assertThat(key).startsWith("hash:");
+        assertThat(resolver.resolve(request("p1", reversed), " ")).isEqualTo(key);
+        assertThat(resolver.resolve(request("p1", Map.of("a", "1", "b", "3")), null)).isNotEqualTo(key);
+    }
+
+    @Test
+    void skipsDeduplicationWithoutAClientKeyWhenDerivationIsOff() {
+        IdempotencyKeyResolver clientKeysOnly = new IdempotencyKeyResolver(false);
+
+        assertThat(clientKeysOnly.resolve(request("p1", Map.of()), null)).isNull();
+        assertThat(clientKeysOnly.resolve(request("p1", Map.of()), "abc")).isEqualTo("key:p1:abc");
+    }
+
+    private static NotificationRequest request(String projectId, Map<String, String> placeholders) {
+        NotificationRequest request = new NotificationRequest();
+        request.setProjectId(projectId);
+        request.setUserId("u1");
+        request.setChannels(List.of(ChannelType.SMS));
+        request.setTemplateCode("otp");
+        request.setPlaceholders(placeholders);
+        return request;
+    }
+}
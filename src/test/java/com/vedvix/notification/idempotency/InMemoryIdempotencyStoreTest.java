@@ -0,0 +1,108 @@
+package com.vedvix.notification.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void returnsTheFirstNotificationIdForALiveKey() {
+        InMemoryIdempotencyStore store = store(Duration.ofMillis(10), 100, null);
+
+        assertThat(store.putIfAbsent("k", "n1")).isNull();
+        assertThat(store.putIfAbsent("k", "n2")).isEqualTo("n1");
+    }
+
+    @Test
+    void reclaimsAKeyOnceItHasExpired() {
+        InMemoryIdempotencyStore store = store(Duration.ofMillis(10), 100, null);
+        store.putIfAbsent("k", "n1");
+
+        now.set(10);
+
+        assertThat(store.putIfAbsent("k", "n2")).isNull();
+        assertThat(store.putIfAbsent("k", "n3")).isEqualTo("n2");
+    }
+
+    @Test
+    void removeReleasesOnlyTheMatchingClaim() {
+        InMemoryIdempotencyStore store = store(Duration.ofMillis(10), 100, null);
+        store.putIfAbsent("k", "n1");
+
+        store.remove("k", "other");
+        assertThat(store.putIfAbsent("k", "n2")).isEqualTo("n1");
+
+        store.remove("k", "n1");
+        assertThat(store.putIfAbsent("k", "n2")).isNull();
+    }
+
+    @Test
+    void aReclaimedKeyDoesNotHoldUpEvictionOfLaterExpiredKeys() {
+        InMemoryIdempotencyStore store = store(Duration.ofMillis(10), 100, null);
+        store.putIfAbsent("a", "n1");
+        store.remove("a", "n1");
+        now.set(1);
+        store.putIfAbsent("b", "n2");
+        now.set(9);
+        store.putIfAbsent("a", "n3");
+
+        now.set(12);
+        store.putIfAbsent("c", "n4");
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.putIfAbsent("a", "n5")).isEqualTo("n3");
+    }
+
+    @Test
+    void evictsTheOldestKeysBeyondMaxEntries() {
+        InMemoryIdempotencyStore store = store(Duration.ofMinutes(10), 2, null);
+        store.putIfAbsent("a", "n1");
+        store.putIfAbsent("b", "n2");
+        store.putIfAbsent("c", "n3");
+        store.putIfAbsent("d", "n4");
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.putIfAbsent("c", "n5")).isEqualTo("n3");
+        assertThat(store.putIfAbsent("d", "n6")).isEqualTo("n4");
+        assertThat(store.putIfAbsent("a", "n7")).isNull();
+        assertThat(store.putIfAbsent("b", "n8")).isNull();
+    }
+
+    @Test
+    void fallsThroughToTheBackingStoreOnAMiss() {
+        FakeStore backing = new FakeStore();
+        backing.claims.put("k", "persisted");
+        InMemoryIdempotencyStore store = store(Duration.ofMillis(10), 100, backing);
+
+        assertThat(store.putIfAbsent("k", "n1")).isEqualTo("persisted");
+        assertThat(store.putIfAbsent("k", "n2")).isEqualTo("persisted");
+        assertThat(store.putIfAbsent("other", "n3")).isNull();
+        assertThat(backing.claims).containsEntry("other", "n3");
+    }
+
+    private InMemoryIdempotencyStore store(Duration ttl, int maxEntries, IdempotencyStore backing) {
+        return new InMemoryIdempotencyStore(ttl, maxEntries, backing, now::get);
+    }
+
+    private static final class FakeStore implements IdempotencyStore {
+        private final Map<String, String> claims = new HashMap<>();
+
+        @Override
+        public String putIfAbsent(String key, String notificationId) {
+            return claims.putIfAbsent(key, notificationId);
+        }
+
+        @Override
+        public void remove(String key, String notificationId) {
+            claims.remove(key, notificationId);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.vedvix.notification.infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingPublisherTest {
+
+    private static final String EXCHANGE = "notification_exchange";
+    private static final String QUEUE = "notification_sms";
+
+    private final List<Message> sent = new ArrayList<>();
+    private final ConfirmingPublisher delegate = new ConfirmingPublisher(null, 1, 0, Duration.ZERO, Duration.ZERO) {
+        @Override
+        public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+            sent.add(message);
+            return CompletableFuture.completedFuture(null);
+        }
+    };
+    private final BatchingPublisher publisher = new BatchingPublisher(delegate, 3, 65536, Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+        delegate.stop();
+    }
+
+    @Test
+    void everyMessageKeepsItsOwnPublishTimeThroughABatch() {
+        publisher.publish(EXCHANGE, QUEUE, message("user-1", "a", 1_000L, "twilio"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-2", "b", 2_000L, "twilio"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-3", "c", 3_000L, "twilio"));
+
+        assertThat(sent).hasSize(1);
+        Message batch = sent.get(0);
+        assertThat(batch.getMessageProperties().getHeaders())
+                .doesNotContainKey(PublisherPool.USER_ID_HEADER)
+                .doesNotContainKey(NotificationMessageEncoder.PUBLISHED_AT_HEADER);
+
+        List<Message> fragments = new ArrayList<>();
+        new NotificationBatchingStrategy().deBatch(batch, fragments::add);
+
+        assertThat(fragments).extracting(BatchingPublisherTest::body).containsExactly("a", "b", "c");
+        assertThat(fragments).extracting(BatchingPublisherTest::publishedAt).containsExactly(1_000L, 2_000L, 3_000L);
+        assertThat(fragments).extracting(BatchingPublisherTest::provider).containsExactly("twilio", "twilio", "twilio");
+        assertThat(fragments.get(2).getMessageProperties().isLastInBatch()).isTrue();
+    }
+
+    @Test
+    void batchesOnlyMessagesWithTheSameProperties() {
+        publisher.publish(EXCHANGE, QUEUE, message("user-1", "a", 1_000L, "twilio"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-2", "b", 2_000L, "twilio-p1"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-3", "c", 3_000L, "twilio"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-4", "d", 4_000L, "twilio"));
+
+        assertThat(sent).hasSize(1);
+        List<Message> fragments = new ArrayList<>();
+        new NotificationBatchingStrategy().deBatch(sent.get(0), fragments::add);
+        assertThat(fragments).extracting(BatchingPublisherTest::body).containsExactly("a", "c", "d");
+    }
+
+    @Test
+    void recordsTheQueueWaitOfEveryMessageInABatch() {
+        publisher.publish(EXCHANGE, QUEUE, message("user-1", "a", 1_000L, "twilio"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-2", "b", 2_000L, "twilio"));
+        publisher.publish(EXCHANGE, QUEUE, message("user-3", "c", 3_000L, "twilio"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Message batch = sent.get(0);
+        batch.getMessageProperties().setConsumerQueue(QUEUE);
+
+        new QueueWaitRecorder(registry).postProcessMessage(batch);
+
+        assertThat(registry.get("notification.queue.wait").timer().count()).isEqualTo(3L);
+    }
+
+    private static Message message(String userId, String body, long publishedAt, String provider) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setHeader(PublisherPool.USER_ID_HEADER, userId);
+        properties.setHeader(NotificationMessageEncoder.PUBLISHED_AT_HEADER, publishedAt);
+        properties.setHeader(NotificationMessageEncoder.PRIORITY_HEADER, "LOW");
+        properties.setHeader(MessagingProducer.PROVIDER_HEADER, provider);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private static String body(Message message) {
+        return new String(message.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static Object publishedAt(Message message) {
+        return message.getMessageProperties().getHeader(NotificationMessageEncoder.PUBLISHED_AT_HEADER);
+    }
+
+    private static Object provider(Message message) {
+        return message.getMessageProperties().getHeader(MessagingProducer.PROVIDER_HEADER);
+    }
+}
@@ -0,0 +1,222 @@
+package com.vedvix.notification.infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfirmingPublisherTest {
+
+    private static final String EXCHANGE = "notification_exchange";
+    private static final String QUEUE = "notification_sms";
+
+    private final BlockingQueue<Send> sent = new LinkedBlockingQueue<>();
+    private final List<FakeTemplate> templates = List.of(new FakeTemplate(), new FakeTemplate());
+    private ConfirmingPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    void completesOnAnAckAndFreesTheWindow() throws InterruptedException {
+        publisher = publisher(10, 3, Duration.ofSeconds(10));
+
+        CompletableFuture<Void> result = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        Send send = next();
+        assertThat(result).isNotDone();
+        assertThat(publisher.outstanding()).isEqualTo(1);
+
+        send.ack();
+
+        assertThat(result).isCompletedWithValue(null);
+        assertThat(publisher.outstanding()).isZero();
+    }
+
+    @Test
+    void retriesANackOnTheSameConnectionUntilItGivesUp() throws InterruptedException {
+        publisher = publisher(10, 2, Duration.ofSeconds(10));
+
+        CompletableFuture<Void> result = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        Send first = next();
+        first.nack("internal error");
+        Send second = next();
+        second.nack("internal error");
+        next().nack("internal error");
+
+        assertThat(second.template()).isSameAs(first.template());
+        assertThat(second.message()).isNotSameAs(first.message());
+        assertThat(second.body()).isEqualTo("a");
+        assertThatThrownBy(result::join)
+                .hasCauseInstanceOf(AmqpException.class)
+                .hasMessageContaining("Broker nacked message: internal error");
+        assertThat(sent.poll(50, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(publisher.outstanding()).isZero();
+    }
+
+    @Test
+    void retriesWhenTheConfirmTimesOut() throws InterruptedException {
+        publisher = publisher(10, 3, Duration.ofMillis(20));
+
+        CompletableFuture<Void> result = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        next();
+        next().ack();
+
+        assertThat(result.join()).isNull();
+    }
+
+    @Test
+    void retriesASendTheTemplateRejected() throws InterruptedException {
+        publisher = publisher(10, 3, Duration.ofSeconds(10));
+        templates.forEach(template -> template.failures.set(1));
+
+        CompletableFuture<Void> result = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        next().ack();
+
+        assertThat(result.join()).isNull();
+    }
+
+    @Test
+    void failsAnUnroutableReturnWithoutRetrying() throws InterruptedException {
+        publisher = publisher(10, 3, Duration.ofSeconds(10));
+
+        CompletableFuture<Void> result = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        next().returned("NO_ROUTE");
+
+        assertThatThrownBy(result::join)
+                .hasCauseInstanceOf(UnroutableMessageException.class)
+                .hasMessageContaining("NO_ROUTE");
+        assertThat(sent.poll(50, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void blocksPublishersWhileTheWindowIsFull() throws Exception {
+        publisher = publisher(1, 3, Duration.ofSeconds(10));
+        publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        Send first = next();
+
+        CompletableFuture<CompletableFuture<Void>> blocked =
+                CompletableFuture.supplyAsync(() -> publisher.publish(EXCHANGE, QUEUE, message("user-2", "b")));
+        assertThat(sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(blocked).isNotDone();
+
+        first.ack();
+        Send second = next();
+        second.ack();
+
+        assertThat(second.body()).isEqualTo("b");
+        assertThat(blocked.get(5, TimeUnit.SECONDS).join()).isNull();
+    }
+
+    @Test
+    void holdsAUsersLaterMessagesUntilTheRetryIsConfirmed() throws InterruptedException {
+        publisher = publisher(10, 3, Duration.ofSeconds(10));
+
+        CompletableFuture<Void> a = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        next().nack("internal error");
+        CompletableFuture<Void> b = publisher.publish(EXCHANGE, QUEUE, message("user-1", "b"));
+        CompletableFuture<Void> c = publisher.publish(EXCHANGE, QUEUE, message("user-2", "c"));
+        Send first = next();
+        Send second = next();
+
+        assertThat(List.of(first.body(), second.body())).containsExactlyInAnyOrder("a", "c");
+        assertThat(sent.poll(50, TimeUnit.MILLISECONDS)).isNull();
+
+        (first.body().equals("a") ? first : second).ack();
+        Send released = next();
+        released.ack();
+        (first.body().equals("c") ? first : second).ack();
+
+        assertThat(released.body()).isEqualTo("b");
+        assertThat(a.join()).isNull();
+        assertThat(b.join()).isNull();
+        assertThat(c.join()).isNull();
+    }
+
+    @Test
+    void failsTheHeldMessagesWithARetryThatGivesUp() throws InterruptedException {
+        publisher = publisher(10, 1, Duration.ofSeconds(10));
+
+        CompletableFuture<Void> a = publisher.publish(EXCHANGE, QUEUE, message("user-1", "a"));
+        next().nack("internal error");
+        CompletableFuture<Void> b = publisher.publish(EXCHANGE, QUEUE, message("user-1", "b"));
+        next().nack("disk full");
+
+        assertThatThrownBy(a::join).hasMessageContaining("disk full");
+        assertThatThrownBy(b::join).hasMessageContaining("disk full");
+        assertThat(sent.poll(50, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(publisher.outstanding()).isZero();
+    }
+
+    private ConfirmingPublisher publisher(int maxOutstanding, int maxRetries, Duration confirmTimeout) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<PublisherPool.Shard> shards = List.of(
+                new PublisherPool.Shard(0, null, templates.get(0), registry),
+                new PublisherPool.Shard(1, null, templates.get(1), registry));
+        return new ConfirmingPublisher(new PublisherPool(shards, true), maxOutstanding, maxRetries, Duration.ofMillis(1), confirmTimeout);
+    }
+
+    private Send next() throws InterruptedException {
+        Send send = sent.poll(5, TimeUnit.SECONDS);
+        assertThat(send).isNotNull();
+        return send;
+    }
+
+    private static Message message(String userId, String body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(PublisherPool.USER_ID_HEADER, userId);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    // The broker's side of a send: the test decides when and how it is confirmed
+    private record Send(RabbitTemplate template, Message message, CorrelationData correlation) {
+
+        String body() {
+            return new String(message.getBody(), StandardCharsets.UTF_8);
+        }
+
+        void ack() {
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+
+        void nack(String reason) {
+            correlation.getFuture().complete(new CorrelationData.Confirm(false, reason));
+        }
+
+        // Like the broker, the return arrives before the ack
+        void returned(String replyText) {
+            correlation.setReturned(new ReturnedMessage(message, 312, replyText, EXCHANGE, QUEUE));
+            ack();
+        }
+    }
+
+    private final class FakeTemplate extends RabbitTemplate {
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new AmqpException("Channel closed");
+            }
+            sent.add(new Send(this, message, correlationData));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.vedvix.notification.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.config.ScheduleConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DelayLadderTest {
+
+    private static final List<Duration> TIERS = List.of(
+            Duration.ofDays(1), Duration.ofHours(6), Duration.ofHours(1), Duration.ofMinutes(10),
+            Duration.ofMinutes(1), Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+    private final ScheduleConfig config = new ScheduleConfig();
+    private final List<Parked> parked = new CopyOnWriteArrayList<>();
+    private final List<Long> publishedAt = new CopyOnWriteArrayList<>();
+    private CompletableFuture<Void> tierOutcome = CompletableFuture.completedFuture(null);
+    private CompletableFuture<Void> publishOutcome = CompletableFuture.completedFuture(null);
+
+    private final ConfirmingPublisher tierPublisher = new ConfirmingPublisher(null, 1, 0, Duration.ZERO, Duration.ZERO) {
+        @Override
+        public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+            parked.add(new Parked(routingKey, message.getMessageProperties().getHeader(DelayLadder.DELIVER_AT_HEADER)));
+            return tierOutcome;
+        }
+    };
+    private final MessagingProducer producer = new MessagingProducer(null, null, null) {
+        @Override
+        public CompletableFuture<Void> publish(NotificationRequest request) {
+            publishedAt.add(System.currentTimeMillis());
+            return publishOutcome;
+        }
+    };
+    private final DelayLadder ladder = new DelayLadder(tierPublisher,
+            new NotificationMessageEncoder(new ObjectMapper(), WireFormat.JSON, false, 4096), producer, config);
+
+    @AfterEach
+    void tearDown() {
+        ladder.stop();
+        tierPublisher.stop();
+    }
+
+    @Test
+    void picksTheLongestTierThatDoesNotOvershoot() {
+        assertThat(DelayLadder.tier(TIERS, Duration.ofDays(3).toMillis())).isEqualTo(Duration.ofDays(1));
+        assertThat(DelayLadder.tier(TIERS, Duration.ofSeconds(90).toMillis())).isEqualTo(Duration.ofMinutes(1));
+        assertThat(DelayLadder.tier(TIERS, 10_000)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(DelayLadder.tier(TIERS, 9_999)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(DelayLadder.tier(TIERS, 999)).isNull();
+        assertThat(DelayLadder.tier(TIERS, -5)).isNull();
+    }
+
+    @Test
+    void parksARequestInItsTierWithItsDeliverAt() {
+        long deliverAt = System.currentTimeMillis() + Duration.ofSeconds(90).toMillis();
+
+        ladder.park(request(), deliverAt).join();
+
+        assertThat(parked).containsExactly(new Parked(config.tierQueue(Duration.ofMinutes(1)), deliverAt));
+        assertThat(publishedAt).isEmpty();
+    }
+
+    @Test
+    void holdsARequestDueWithinTheShortestTierUntilItIsDue() {
+        long deliverAt = System.currentTimeMillis() + 200;
+
+        CompletableFuture<Void> hop = ladder.onTierExpired(request(), deliverAt);
+        assertThat(publishedAt).isEmpty();
+        hop.join();
+
+        assertThat(publishedAt).hasSize(1);
+        assertThat(publishedAt.get(0)).isGreaterThanOrEqualTo(deliverAt);
+        assertThat(parked).isEmpty();
+    }
+
+    @Test
+    void publishesAnOverdueRequestRightAway() {
+        ladder.onTierExpired(request(), System.currentTimeMillis() - 1_000).join();
+
+        assertThat(publishedAt).hasSize(1);
+    }
+
+    @Test
+    void sendsAFailedHopBackToTheShortestTier() {
+        publishOutcome = CompletableFuture.failedFuture(new AmqpException("Broker nacked message"));
+        long deliverAt = System.currentTimeMillis() - 1;
+
+        ladder.onTierExpired(request(), deliverAt).join();
+
+        assertThat(parked).containsExactly(new Parked(config.tierQueue(Duration.ofSeconds(1)), deliverAt));
+    }
+
+    @Test
+    void dropsAnUnroutableRequestInsteadOfRetryingIt() {
+        publishOutcome = CompletableFuture.failedFuture(new UnroutableMessageException("NO_ROUTE"));
+
+        ladder.onTierExpired(request(), System.currentTimeMillis() - 1).join();
+
+        assertThat(parked).isEmpty();
+    }
+
+    @Test
+    void failsTheHopWhenTheRetryTierCannotBeReachedEither() {
+        publishOutcome = CompletableFuture.failedFuture(new AmqpException("Broker nacked message"));
+        tierOutcome = CompletableFuture.failedFuture(new AmqpException("Connection refused"));
+
+        CompletableFuture<Void> hop = ladder.onTierExpired(request(), System.currentTimeMillis() - 1);
+
+        assertThatThrownBy(hop::join).hasMessageContaining("Connection refused");
+    }
+
+    private static NotificationRequest request() {
+        NotificationRequest request = new NotificationRequest();
+        request.setNotificationId("n-1");
+        request.setProjectId("p1-prod");
+        request.setUserId("user-123");
+        request.setChannels(new ArrayList<>(List.of(ChannelType.SMS)));
+        request.setTemplateCode("ORDER_CONFIRMATION");
+        return request;
+    }
+
+    private record Parked(String queue, Object deliverAt) {
+    }
+}
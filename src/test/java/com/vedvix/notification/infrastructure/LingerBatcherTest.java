@@ -0,0 +1,121 @@
+package com.vedvix.notification.infrastructure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LingerBatcherTest {
+
+    // Long enough that the flusher never fires during a size-triggered test
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final BlockingQueue<Batch> sent = new LinkedBlockingQueue<>();
+    private LingerBatcher<String, Integer> batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    void flushesAGroupOnTheCallingThreadOnceItIsFull() {
+        batcher = new LingerBatcher<>("test", 3, NEVER, this::record);
+
+        batcher.add("a", 1);
+        batcher.add("b", 2);
+        batcher.add("a", 3);
+        assertThat(sent).isEmpty();
+
+        batcher.add("a", 4);
+
+        assertThat(sent).containsExactly(new Batch("a", List.of(1, 3, 4), Thread.currentThread().getName()));
+    }
+
+    @Test
+    void flushesAGroupBeforeItWouldExceedTheMaxWeight() {
+        batcher = new LingerBatcher<>("test", 100, 10, item -> item, NEVER, this::record);
+
+        batcher.add("a", 4);
+        batcher.add("a", 5);
+        batcher.add("a", 2);
+
+        assertThat(sent).extracting(Batch::items).containsExactly(List.of(4, 5));
+    }
+
+    @Test
+    void flushesALingeringGroupFromTheFlusherThread() throws InterruptedException {
+        batcher = new LingerBatcher<>("test", 100, Duration.ofMillis(10), this::record);
+
+        batcher.add("a", 1);
+        batcher.add("a", 2);
+
+        Batch batch = sent.poll(5, TimeUnit.SECONDS);
+        assertThat(batch).isNotNull();
+        assertThat(batch.items()).containsExactly(1, 2);
+        assertThat(batch.thread()).startsWith("test-flush-");
+    }
+
+    @Test
+    void keepsFlushingAfterTheSinkThrows() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        batcher = new LingerBatcher<>("test", 100, Duration.ofMillis(10), (key, items) -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IllegalStateException("sink failed");
+            }
+            record(key, items);
+        });
+
+        batcher.add("a", 1);
+        waitFor(() -> calls.get() == 1);
+        batcher.add("a", 2);
+
+        Batch batch = sent.poll(5, TimeUnit.SECONDS);
+        assertThat(batch).isNotNull();
+        assertThat(batch.items()).containsExactly(2);
+    }
+
+    @Test
+    void aThrowingSinkDoesNotFailTheCaller() {
+        batcher = new LingerBatcher<>("test", 1, NEVER, (key, items) -> {
+            throw new IllegalStateException("sink failed");
+        });
+
+        batcher.add("a", 1);
+        batcher.add("a", 2);
+    }
+
+    @Test
+    void closeHandsOverEveryPendingGroup() {
+        batcher = new LingerBatcher<>("test", 100, NEVER, this::record);
+        batcher.add("a", 1);
+        batcher.add("b", 2);
+
+        batcher.close();
+
+        assertThat(sent).extracting(Batch::key).containsExactlyInAnyOrder("a", "b");
+    }
+
+    private void record(String key, List<Integer> items) {
+        sent.add(new Batch(key, items, Thread.currentThread().getName()));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private record Batch(String key, List<Integer> items, String thread) {
+    }
+}
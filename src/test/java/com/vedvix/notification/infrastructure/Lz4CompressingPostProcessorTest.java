@@ -0,0 +1,73 @@
+package com.vedvix.notification.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Lz4CompressingPostProcessorTest {
+
+    private static final int THRESHOLD = 4096;
+
+    private final Lz4CompressingPostProcessor compressor = new Lz4CompressingPostProcessor(THRESHOLD);
+    private final Lz4DecompressingPostProcessor decompressor = new Lz4DecompressingPostProcessor();
+
+    @Test
+    void compressesABodyAboveTheThresholdAndRestoresItOnReceive() {
+        byte[] body = json(THRESHOLD * 4);
+
+        Message compressed = compressor.postProcessMessage(message(body));
+
+        assertThat(Lz4CompressingPostProcessor.isCompressed(compressed)).isTrue();
+        assertThat(compressed.getMessageProperties().getContentEncoding()).isEqualTo("lz4:UTF-8");
+        assertThat(compressed.getBody().length).isLessThan(body.length);
+        assertThat(compressed.getMessageProperties().getContentLength()).isEqualTo((long) compressed.getBody().length);
+
+        Message restored = decompressor.postProcessMessage(compressed);
+
+        assertThat(restored.getBody()).isEqualTo(body);
+        assertThat(restored.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+        assertThat(Lz4CompressingPostProcessor.isCompressed(restored)).isFalse();
+    }
+
+    @Test
+    void compressesABodyOfExactlyTheThreshold() {
+        Message compressed = compressor.postProcessMessage(message(json(THRESHOLD)));
+
+        assertThat(Lz4CompressingPostProcessor.isCompressed(compressed)).isTrue();
+    }
+
+    @Test
+    void sendsABodyBelowTheThresholdUncompressed() {
+        byte[] body = json(THRESHOLD - 1);
+        Message message = message(body);
+
+        Message sent = compressor.postProcessMessage(message);
+
+        assertThat(sent).isSameAs(message);
+        assertThat(sent.getBody()).isSameAs(body);
+        assertThat(sent.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+        assertThat(Lz4CompressingPostProcessor.isCompressed(sent)).isFalse();
+    }
+
+    private static Message message(byte[] body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setContentLength(body.length);
+        return new Message(body, properties);
+    }
+
+    // A JSON array of repeated placeholders, padded to exactly the given number of bytes
+    private static byte[] json(int bytes) {
+        StringBuilder json = new StringBuilder("[");
+        while (json.length() < bytes - 42) {
+            json.append("{\"userName\":\"Ada\",\"orderId\":\"ORD1234\"},");
+        }
+        json.append("\"").append(" ".repeat(bytes - json.length() - 2)).append("\"]");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,150 @@
+package com.vedvix.notification.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxSpoolTest {
+
+    // Small enough that a handful of records roll over to a new segment
+    private static final int SEGMENT_SIZE = 512;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void staysInactiveUntilSomethingIsSpooled() throws IOException {
+        OutboxSpool spool = open();
+
+        assertThat(spool.isActive()).isFalse();
+        assertThat(spool.appendIfActive(request(0))).isFalse();
+        assertThat(spool.read(10).isEmpty()).isTrue();
+
+        spool.append(request(0));
+
+        assertThat(spool.isActive()).isTrue();
+        assertThat(spool.appendIfActive(request(1))).isTrue();
+    }
+
+    @Test
+    void readsAndCommitsInOrderAcrossSegmentRollover() throws IOException {
+        OutboxSpool spool = open();
+        for (int i = 0; i < 20; i++) {
+            spool.append(request(i));
+        }
+        assertThat(segments()).hasSizeGreaterThan(2);
+
+        OutboxSpool.SpoolBatch first = spool.read(7);
+        assertThat(ids(first)).containsExactly(ids(0, 7));
+        // Reading does not consume
+        assertThat(ids(spool.read(7))).containsExactly(ids(0, 7));
+
+        spool.commit(first);
+        OutboxSpool.SpoolBatch rest = spool.read(100);
+        assertThat(ids(rest)).containsExactly(ids(7, 20));
+        assertThat(spool.deactivateIfDrained()).isFalse();
+
+        spool.commit(rest);
+        assertThat(segments()).hasSize(1);
+        assertThat(spool.read(100).isEmpty()).isTrue();
+        assertThat(spool.deactivateIfDrained()).isTrue();
+        assertThat(spool.isActive()).isFalse();
+    }
+
+    @Test
+    void resumesFromTheCheckpointAfterARestart() throws IOException {
+        OutboxSpool spool = open();
+        for (int i = 0; i < 12; i++) {
+            spool.append(request(i));
+        }
+        spool.commit(spool.read(5));
+        spool.close();
+
+        OutboxSpool reopened = open();
+
+        assertThat(reopened.isActive()).isTrue();
+        reopened.append(request(12));
+        assertThat(ids(reopened.read(100))).containsExactly(ids(5, 13));
+    }
+
+    @Test
+    void discardsATruncatedTrailingRecordOnOpen() throws IOException {
+        OutboxSpool spool = open();
+        for (int i = 0; i < 3; i++) {
+            spool.append(request(i));
+        }
+        spool.close();
+        tearTrailingRecord(segments().get(segments().size() - 1));
+
+        OutboxSpool reopened = open();
+        assertThat(ids(reopened.read(100))).containsExactly(ids(0, 3));
+
+        reopened.append(request(3));
+        assertThat(ids(reopened.read(100))).containsExactly(ids(0, 4));
+    }
+
+    private OutboxSpool open() throws IOException {
+        OutboxSpool spool = new OutboxSpool(objectMapper, directory, SEGMENT_SIZE);
+        spool.open();
+        return spool;
+    }
+
+    // Simulates a crash mid-append: a length is in place but the payload and checksum never made it
+    private static void tearTrailingRecord(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+            int position = 0;
+            int length;
+            while ((length = buffer.getInt(position)) > 0) {
+                position += 2 * Integer.BYTES + length;
+            }
+            buffer.putInt(position, 40);
+            buffer.put(position + 2 * Integer.BYTES, "{\"notificationId\":\"to".getBytes());
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".spool")).sorted().toList();
+        }
+    }
+
+    private static NotificationRequest request(int i) {
+        NotificationRequest request = new NotificationRequest();
+        request.setNotificationId("n" + i);
+        request.setProjectId("p1");
+        request.setUserId("u" + i);
+        request.setChannels(List.of(ChannelType.SMS));
+        request.setTemplateCode("otp");
+        request.setPlaceholders(Map.of("code", String.valueOf(1000 + i)));
+        return request;
+    }
+
+    private static List<String> ids(OutboxSpool.SpoolBatch batch) {
+        return batch.requests().stream().map(NotificationRequest::getNotificationId).toList();
+    }
+
+    private static String[] ids(int from, int to) {
+        String[] ids = new String[to - from];
+        for (int i = from; i < to; i++) {
+            ids[i - from] = "n" + i;
+        }
+        return ids;
+    }
+}
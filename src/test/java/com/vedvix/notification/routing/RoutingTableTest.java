@@ -0,0 +1,140 @@
+package com.vedvix.notification.routing;
+
+import com.vedvix.notification.config.RoutingConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationPriority;
+import com.vedvix.notification.infrastructure.MessagingProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingTableTest {
+
+    private RoutingConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RoutingConfig();
+        config.setExchange("notification_exchange");
+        config.getDefaults().put(ChannelType.SMS, rule("notification_sms", 0, "twilio"));
+        config.getDefaults().put(ChannelType.PUSH, rule("notification_push", 0, "fcm"));
+        config.getDefaults().put(ChannelType.EMAIL, rule("notification_email", 0, "ses"));
+
+        Map<ChannelType, RoutingConfig.RouteRule> p1 = new EnumMap<>(ChannelType.class);
+        p1.put(ChannelType.SMS, rule("notification_sms_p1", 5, "twilio-p1"));
+        p1.put(ChannelType.EMAIL, rule("notification_email", 3, "ses"));
+        config.getProjects().put("p1-prod", p1);
+    }
+
+    @Test
+    void routesEveryChannelToItsDefaultQueue() {
+        RoutingTable table = new RoutingTable(config);
+
+        assertRoute(table.route("unknown", ChannelType.SMS), "notification_sms", 0, "twilio");
+        assertRoute(table.route("unknown", ChannelType.PUSH), "notification_push", 0, "fcm");
+        assertRoute(table.route("unknown", ChannelType.EMAIL), "notification_email", 0, "ses");
+        assertRoute(table.route(null, ChannelType.SMS), "notification_sms", 0, "twilio");
+    }
+
+    @Test
+    void routesProjectOverridesAndInheritsTheRest() {
+        RoutingTable table = new RoutingTable(config);
+
+        assertRoute(table.route("p1-prod", ChannelType.SMS), "notification_sms_p1", 5, "twilio-p1");
+        assertRoute(table.route("p1-prod", ChannelType.EMAIL), "notification_email", 3, "ses");
+        assertThat(table.route("p1-prod", ChannelType.PUSH)).isSameAs(table.route("unknown", ChannelType.PUSH));
+    }
+
+    @Test
+    void listsEveryQueuePerChannelForTheListeners() {
+        RoutingTable table = new RoutingTable(config);
+
+        assertThat(table.queues(ChannelType.SMS, NotificationPriority.LOW)).containsExactlyInAnyOrder("notification_sms", "notification_sms_p1");
+        assertThat(table.queues(ChannelType.PUSH, NotificationPriority.LOW)).containsExactly("notification_push");
+        assertThat(table.queues(ChannelType.EMAIL, NotificationPriority.LOW)).containsExactly("notification_email");
+        assertThat(table.queues(ChannelType.SMS, NotificationPriority.HIGH)).containsExactlyInAnyOrder("notification_sms_high", "notification_sms_p1_high");
+    }
+
+    @Test
+    void routesHighPriorityRequestsToADedicatedQueue() {
+        RoutingTable table = new RoutingTable(config);
+
+        assertRoute(table.route("unknown", ChannelType.SMS, NotificationPriority.HIGH), "notification_sms_high", 0, "twilio");
+        assertRoute(table.route("p1-prod", ChannelType.SMS, NotificationPriority.HIGH), "notification_sms_p1_high", 5, "twilio-p1");
+        assertThat(table.route("p1-prod", ChannelType.SMS, null)).isSameAs(table.route("p1-prod", ChannelType.SMS, NotificationPriority.LOW));
+    }
+
+    @Test
+    void declaresTheHighestPriorityRoutedToEachQueue() {
+        RoutingTable table = new RoutingTable(config);
+
+        assertThat(table.maxPriorityByQueue())
+                .containsEntry("notification_sms", 0)
+                .containsEntry("notification_sms_p1", 5)
+                .containsEntry("notification_email", 3)
+                .containsEntry("notification_email_high", 3)
+                .containsEntry("notification_push", 0);
+    }
+
+    @Test
+    void partitionsByUserIdAndListensToEveryPartition() {
+        config.getPartitions().put(ChannelType.SMS, 4);
+        RoutingTable table = new RoutingTable(config);
+        Route route = table.route("unknown", ChannelType.SMS);
+
+        assertThat(route.routingKey("user-123")).isEqualTo(route.routingKey("user-123"))
+                .isEqualTo("notification_sms." + route.partition("user-123"));
+        assertThat(table.route("unknown", ChannelType.PUSH).routingKey("user-123")).isEqualTo("notification_push");
+        assertThat(table.queues(ChannelType.SMS, NotificationPriority.LOW)).containsExactlyInAnyOrder(
+                "notification_sms.0", "notification_sms.1", "notification_sms.2", "notification_sms.3",
+                "notification_sms_p1.0", "notification_sms_p1.1", "notification_sms_p1.2", "notification_sms_p1.3");
+        assertThat(table.containerFactory(ChannelType.SMS)).isEqualTo(RoutingTable.PARTITIONED_CONTAINER_FACTORY);
+        assertThat(table.concurrency(ChannelType.SMS, "1-4")).isEqualTo("1");
+        assertThat(table.concurrency(ChannelType.PUSH, "1-4")).isEqualTo("1-4");
+    }
+
+    @Test
+    void rejectsTablesWithoutADefaultForEveryChannel() {
+        config.getDefaults().remove(ChannelType.PUSH);
+
+        assertThatThrownBy(() -> new RoutingTable(config))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PUSH");
+    }
+
+    @Test
+    void stampsRoutePriorityAndProviderWithoutTouchingTheSharedBody() {
+        RoutingTable table = new RoutingTable(config);
+        Message encoded = new Message(new byte[]{1, 2, 3}, new MessageProperties());
+
+        Message routed = MessagingProducer.forRoute(encoded, table.route("p1-prod", ChannelType.SMS));
+
+        assertThat(routed.getBody()).isSameAs(encoded.getBody());
+        assertThat(routed.getMessageProperties().getPriority()).isEqualTo(5);
+        assertThat((String) routed.getMessageProperties().getHeader(MessagingProducer.PROVIDER_HEADER)).isEqualTo("twilio-p1");
+        assertThat(encoded.getMessageProperties().getHeaders()).doesNotContainKey(MessagingProducer.PROVIDER_HEADER);
+    }
+
+    private static void assertRoute(Route route, String queue, int priority, String provider) {
+        assertThat(route.exchange()).isEqualTo("notification_exchange");
+        assertThat(route.queue()).isEqualTo(queue);
+        assertThat(route.routingKey()).isEqualTo(queue);
+        assertThat(route.priority()).isEqualTo(priority);
+        assertThat(route.provider()).isEqualTo(provider);
+    }
+
+    private static RoutingConfig.RouteRule rule(String queue, int priority, String provider) {
+        RoutingConfig.RouteRule rule = new RoutingConfig.RouteRule();
+        rule.setQueue(queue);
+        rule.setPriority(priority);
+        rule.setProvider(provider);
+        return rule;
+    }
+}
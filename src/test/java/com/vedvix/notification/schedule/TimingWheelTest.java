@@ -0,0 +1,67 @@
+package com.vedvix.notification.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final long START = 1_750_000_000_123L;
+
+    @Test
+    void firesEachTimerOnTheFirstTickAtOrAfterItsDeadlineAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // Spread over roughly 58 days so every level of the wheel gets timers
+            long deadline = START + (long) (random.nextDouble() * random.nextDouble() * 5_000_000_000L);
+            wheel.add(deadline, deadline);
+        }
+
+        long now = START;
+        int fired = 0;
+        while (wheel.size() > 0) {
+            now += TICK;
+            long firedAt = now;
+            List<Long> due = new ArrayList<>();
+            wheel.advanceTo(firedAt, due::add);
+            for (long deadline : due) {
+                assertThat(firedAt).isBetween(deadline, deadline + 2 * TICK);
+            }
+            fired += due.size();
+        }
+        assertThat(fired).isEqualTo(50_000);
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        TimingWheel.Timer<String> kept = wheel.add(START + 5 * TICK, "kept");
+        TimingWheel.Timer<String> cancelled = wheel.add(START + 5 * TICK, "cancelled");
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(START + 10 * TICK, fired::add);
+
+        assertThat(fired).containsExactly("kept");
+        assertThat(wheel.cancel(kept)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesOverdueTimersOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.add(START - 60_000, "recovered late");
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(START, fired::add);
+
+        assertThat(fired).containsExactly("recovered late");
+    }
+}
@@ -0,0 +1,123 @@
+package com.vedvix.notification.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vedvix.notification.dto.NotificationReceipt;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.dto.NotificationResult;
+import com.vedvix.notification.dto.StreamIngestResponse;
+import com.vedvix.notification.service.NotificationService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationStreamServiceImplTest {
+
+    private static final int MAX_LINE_LENGTH = 256;
+
+    private final FakeNotificationService notificationService = new FakeNotificationService();
+
+    @Test
+    void reportsEveryKindOfRejectionByLineNumber() throws IOException {
+        StreamIngestResponse response = ingest(2,
+                request("user-1"),
+                "",
+                "{not json",
+                request("reject"),
+                "{\"userId\":\"" + "x".repeat(MAX_LINE_LENGTH) + "\"}",
+                request("user-2"));
+
+        assertThat(response.isComplete()).isTrue();
+        assertThat(response.getLastLine()).isEqualTo(6L);
+        assertThat(response.getReceived()).isEqualTo(5L);
+        assertThat(response.getAccepted()).isEqualTo(2L);
+        assertThat(response.getRejected()).isEqualTo(3L);
+        assertThat(response.getRejections()).extracting(NotificationResult::getIndex).containsExactlyInAnyOrder(3, 4, 5);
+        assertThat(notificationService.admittedUsers).containsExactly("user-1", "reject", "user-2");
+    }
+
+    @Test
+    void stopsReadingWhenThePipelineStaysFull() throws IOException {
+        notificationService.capacity = 3;
+
+        StreamIngestResponse response = ingest(2,
+                request("user-1"), request("user-2"), request("user-3"), request("user-4"), request("user-5"), request("user-6"));
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.getLastLine()).isEqualTo(3L);
+        assertThat(response.getReceived()).isEqualTo(3L);
+        assertThat(response.getAccepted()).isEqualTo(3L);
+        assertThat(notificationService.admittedUsers).containsExactly("user-1", "user-2", "user-3");
+        assertThat(notificationService.calls).isEqualTo(2);
+    }
+
+    @Test
+    void countsOnlyTheRejectedLinesBeforeTheStop() throws IOException {
+        notificationService.capacity = 2;
+
+        StreamIngestResponse response = ingest(3,
+                request("user-1"), request("user-2"), "{not json", "[]oops", request("user-3"), "{not json");
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.getLastLine()).isEqualTo(4L);
+        assertThat(response.getReceived()).isEqualTo(4L);
+        assertThat(response.getRejections()).extracting(NotificationResult::getIndex).containsExactlyInAnyOrder(3, 4);
+    }
+
+    @Test
+    void acceptsAFinalLineWithoutANewline() throws IOException {
+        StreamIngestResponse response = new NotificationStreamServiceImpl(notificationService, new ObjectMapper(), 10, 100, Duration.ZERO, MAX_LINE_LENGTH)
+                .ingest(new ByteArrayInputStream((request("user-1") + "\r\n" + request("user-2")).getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.isComplete()).isTrue();
+        assertThat(response.getLastLine()).isEqualTo(2L);
+        assertThat(response.getAccepted()).isEqualTo(2L);
+    }
+
+    private StreamIngestResponse ingest(int chunkSize, String... lines) throws IOException {
+        NotificationStreamServiceImpl service = new NotificationStreamServiceImpl(notificationService, new ObjectMapper(), chunkSize, 100, Duration.ZERO, MAX_LINE_LENGTH);
+        return service.ingest(new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String request(String userId) {
+        return "{\"projectId\":\"p1\",\"userId\":\"" + userId + "\",\"channels\":[\"SMS\"],\"templateCode\":\"T\"}";
+    }
+
+    // Rejects user "reject" like validation would, and takes at most capacity requests in total
+    private static final class FakeNotificationService implements NotificationService {
+        private final List<String> admittedUsers = new ArrayList<>();
+        private int capacity = Integer.MAX_VALUE;
+        private int calls;
+
+        @Override
+        public CompletableFuture<NotificationReceipt> sendNotification(NotificationRequest request, String idempotencyKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<List<NotificationResult>> sendNotifications(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BatchAdmission admitNotifications(List<NotificationRequest> requests, String idempotencyKey, Duration admissionTimeout) {
+            calls++;
+            List<NotificationResult> results = new ArrayList<>();
+            for (int i = 0; i < requests.size() && admittedUsers.size() < capacity; i++) {
+                String userId = requests.get(i).getUserId();
+                admittedUsers.add(userId);
+                results.add("reject".equals(userId)
+                        ? NotificationResult.rejected(i, List.of("userId is not allowed"))
+                        : NotificationResult.accepted(i, "n-" + userId));
+            }
+            return new BatchAdmission(results.size(), CompletableFuture.completedFuture(results));
+        }
+    }
+}
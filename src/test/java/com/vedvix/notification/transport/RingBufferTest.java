@@ -0,0 +1,88 @@
+package com.vedvix.notification.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTest {
+
+    @Test
+    void drainsEntriesInPublishOrder() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 3; i++) {
+            assertThat(ring.offer(i, 0)).isTrue();
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(ring.drain(drained::add, 10)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void rejectsOffersWhileFullAndReusesSlotsOnceDrained() {
+        RingBuffer<Integer> ring = new RingBuffer<>(2);
+        ring.offer(1, 0);
+        ring.offer(2, 0);
+
+        assertThat(ring.offer(3, TimeUnit.MILLISECONDS.toNanos(5))).isFalse();
+
+        ring.drain(ignored -> { }, 1);
+        assertThat(ring.offer(3, 0)).isTrue();
+        List<Integer> drained = new ArrayList<>();
+        ring.drain(drained::add, 10);
+        assertThat(drained).containsExactly(2, 3);
+    }
+
+    @Test
+    void keepsEachProducersOrderUnderContention() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        RingBuffer<long[]> ring = new RingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    while (!ring.offer(new long[]{producer, i}, TimeUnit.MILLISECONDS.toNanos(10))) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        start.countDown();
+
+        long[] lastSeen = {-1, -1, -1, -1};
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            received += ring.drain(entry -> {
+                assertThat(entry[1]).isEqualTo(lastSeen[(int) entry[0]] + 1);
+                lastSeen[(int) entry[0]] = entry[1];
+            }, 256);
+        }
+        executor.shutdownNow();
+
+        assertThat(received).isEqualTo(producers * perProducer);
+    }
+
+    @Test
+    void requiresAPowerOfTwoCapacity() {
+        assertThatThrownBy(() -> new RingBuffer<>(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
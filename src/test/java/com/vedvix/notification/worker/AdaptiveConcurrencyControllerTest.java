@@ -0,0 +1,161 @@
+package com.vedvix.notification.worker;
+
+import com.vedvix.notification.config.AdaptiveConcurrencyConfig;
+import com.vedvix.notification.config.RoutingConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationPriority;
+import com.vedvix.notification.infrastructure.QueueWaitRecorder;
+import com.vedvix.notification.routing.RoutingTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyControllerTest {
+
+    private static final String LOW = "notification_email";
+    private static final String HIGH = "notification_email_high";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProviderStats providerStats = new ProviderStats(meterRegistry);
+    private final QueueWaitRecorder queueWaitRecorder = new QueueWaitRecorder(meterRegistry);
+    private final AdaptiveConcurrencyConfig config = new AdaptiveConcurrencyConfig();
+    private final Map<String, Integer> ready = new HashMap<>();
+    private final List<MessageListenerContainer> containers = new ArrayList<>();
+    private final FakeContainer low = container(LOW);
+    private final FakeContainer high = container(HIGH);
+
+    private final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(
+            new RabbitListenerEndpointRegistry() {
+                @Override
+                public Collection<MessageListenerContainer> getListenerContainers() {
+                    return containers;
+                }
+            },
+            new RabbitAdmin(new CachingConnectionFactory()) {
+                @Override
+                public QueueInformation getQueueInfo(String queueName) {
+                    return new QueueInformation(queueName, ready.getOrDefault(queueName, 0), 1);
+                }
+            },
+            routingTable(), providerStats, config, meterRegistry, queueWaitRecorder, "2-8", "1-4");
+
+    @Test
+    void startsEveryLaneAtItsListenersConfiguredMinimum() {
+        controller.adjust();
+
+        assertThat(low.consumers).isEqualTo(1);
+        assertThat(high.consumers).isEqualTo(2);
+    }
+
+    @Test
+    void keepsEachLaneWithinItsOwnBounds() {
+        config.getLanes().put(NotificationPriority.HIGH, bounds(4, 6));
+        ready.put(LOW, 10_000);
+        ready.put(HIGH, 10_000);
+
+        for (int i = 0; i < 6; i++) {
+            controller.adjust();
+        }
+
+        assertThat(low.consumers).isEqualTo(16);
+        assertThat(high.consumers).isEqualTo(6);
+    }
+
+    @Test
+    void backsOffNoFurtherThanTheListenersConfiguredMinimum() {
+        config.getLanes().put(NotificationPriority.HIGH, bounds(1, 16));
+        ready.put(HIGH, 10_000);
+        controller.adjust();
+        assertThat(high.consumers).isEqualTo(4);
+
+        for (int i = 0; i < 5; i++) {
+            providerStats.record(ChannelType.EMAIL, 1_000, false);
+            controller.adjust();
+        }
+
+        assertThat(high.consumers).isEqualTo(2);
+        assertThat(low.consumers).isEqualTo(1);
+    }
+
+    @Test
+    void keepsConsumersThatAreWorkingThroughPrefetchedMessages() {
+        ready.put(LOW, 400);
+        controller.adjust();
+        controller.adjust();
+        controller.adjust();
+        assertThat(low.consumers).isEqualTo(4);
+        ready.put(LOW, 0);
+
+        deliver(LOW);
+        controller.adjust();
+        assertThat(low.consumers).isEqualTo(4);
+
+        controller.adjust();
+        assertThat(low.consumers).isEqualTo(3);
+    }
+
+    private FakeContainer container(String queue) {
+        FakeContainer container = new FakeContainer();
+        container.setQueueNames(queue);
+        containers.add(container);
+        return container;
+    }
+
+    private void deliver(String queue) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(queue);
+        queueWaitRecorder.postProcessMessage(new Message(new byte[0], properties));
+    }
+
+    private static AdaptiveConcurrencyConfig.Bounds bounds(int min, int max) {
+        AdaptiveConcurrencyConfig.Bounds bounds = new AdaptiveConcurrencyConfig.Bounds();
+        bounds.setMin(min);
+        bounds.setMax(max);
+        return bounds;
+    }
+
+    private static RoutingTable routingTable() {
+        RoutingConfig config = new RoutingConfig();
+        config.setExchange("notification_exchange");
+        for (ChannelType channel : ChannelType.values()) {
+            RoutingConfig.RouteRule rule = new RoutingConfig.RouteRule();
+            rule.setQueue("notification_" + channel.name().toLowerCase());
+            config.getDefaults().put(channel, rule);
+        }
+        return new RoutingTable(config);
+    }
+
+    // Records the consumer count the controller settles on instead of starting consumers
+    private static final class FakeContainer extends SimpleMessageListenerContainer {
+        private int consumers;
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+
+        @Override
+        public void setConcurrentConsumers(int concurrentConsumers) {
+            consumers = concurrentConsumers;
+        }
+
+        @Override
+        public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.vedvix.notification.worker;
+
+import com.twilio.rest.api.v2010.account.Message;
+import com.vedvix.notification.config.RoutingConfig;
+import com.vedvix.notification.config.TwilioConfig;
+import com.vedvix.notification.dto.ChannelType;
+import com.vedvix.notification.dto.NotificationRequest;
+import com.vedvix.notification.routing.RoutingTable;
+import com.vedvix.notification.service.SmsService;
+import com.vedvix.notification.template.TemplateService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmsNotificationWorkerTest {
+
+    private final FakeSmsService smsService = new FakeSmsService();
+    private final FakeTemplateService templateService = new FakeTemplateService();
+    private final SmsNotificationWorker worker = new SmsNotificationWorker(null, smsService, templateService, routingTable());
+
+    @Test
+    void sendsTheRenderedTemplateToThePhonePlaceholder() {
+        worker.handleNotification(request(Map.of("phone", "+15550100", "userName", "Ada"))).join();
+
+        assertThat(smsService.sent).containsExactly(new Sms("+15550100", "sms/ORDER_CONFIRMATION.ftl {phone=+15550100, userName=Ada}"));
+    }
+
+    @Test
+    void rejectsARequestWithoutAPhoneNumber() {
+        assertThatThrownBy(() -> worker.handleNotification(request(Map.of("userName", "Ada"))).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> worker.handleNotification(request(Map.of("phone", " "))).join())
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> worker.handleNotification(request(null)).join())
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        assertThat(smsService.sent).isEmpty();
+    }
+
+    @Test
+    void failsTheSendWhenTheTemplateCannotBeRendered() {
+        templateService.failure = new RuntimeException("Error rendering template: sms/ORDER_CONFIRMATION.ftl");
+
+        assertThatThrownBy(() -> worker.handleNotification(request(Map.of("phone", "+15550100"))).join())
+                .hasCauseInstanceOf(RuntimeException.class);
+        assertThat(smsService.sent).isEmpty();
+    }
+
+    private static NotificationRequest request(Map<String, String> placeholders) {
+        NotificationRequest request = new NotificationRequest();
+        request.setProjectId("p1-prod");
+        request.setUserId("user-123");
+        request.setChannels(List.of(ChannelType.SMS));
+        request.setTemplateCode("ORDER_CONFIRMATION");
+        request.setPlaceholders(placeholders);
+        return request;
+    }
+
+    private static RoutingTable routingTable() {
+        RoutingConfig config = new RoutingConfig();
+        config.setExchange("notification_exchange");
+        for (ChannelType channel : ChannelType.values()) {
+            RoutingConfig.RouteRule rule = new RoutingConfig.RouteRule();
+            rule.setQueue("notification_" + channel.name().toLowerCase());
+            config.getDefaults().put(channel, rule);
+        }
+        return new RoutingTable(config);
+    }
+
+    private record Sms(String to, String body) {
+    }
+
+    private static final class FakeSmsService extends SmsService {
+        private final List<Sms> sent = new ArrayList<>();
+
+        private FakeSmsService() {
+            super(new TwilioConfig());
+        }
+
+        @Override
+        public CompletableFuture<Message> sendSms(String to, String message) {
+            sent.add(new Sms(to, message));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static final class FakeTemplateService extends TemplateService {
+        private RuntimeException failure;
+
+        private FakeTemplateService() {
+            super(null);
+        }
+
+        // Echoes the path and the model in key order, so the test can see what was rendered
+        @Override
+        public String renderTemplate(String path, Map<String, Object> model) {
+            if (failure != null) {
+                throw failure;
+            }
+            return path + " " + new TreeMap<>(model);
+        }
+    }
+}